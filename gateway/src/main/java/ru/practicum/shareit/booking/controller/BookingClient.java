@@ -1,59 +1,70 @@
 package ru.practicum.shareit.booking.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerStreamingClient;
+import ru.practicum.shareit.client.ServerTransport;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private final ServerStreamingClient streamingClient;
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         ServerTransport transport,
+                         ServerStreamingClient streamingClient,
+                         ObjectMapper objectMapper) {
+        super(transport, objectMapper, serverUrl + API_PREFIX);
+        this.streamingClient = streamingClient;
     }
 
-    public ResponseEntity<Object> getAllUsersBookings(long userId, State state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUsersBookings(long userId, State state, Integer from,
+                                                                         Integer size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "cursor", cursor
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addBooking(long userId, BookingInputDto requestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> addBooking(long userId, BookingInputDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> updateBooking(long ownerId, long bookingId, boolean isApproved) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateBooking(long ownerId, long bookingId, boolean isApproved) {
         return patch("/" + bookingId + "?approved=" + isApproved, ownerId);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllOwnersBookings(long ownerId, State state, int from, int size) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllOwnersBookings(long ownerId, State state, int from,
+                                                                          int size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
-                "size", size
+                "size", size,
+                "cursor", cursor
         );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        return get("/owner?state={state}&from={from}&size={size}&cursor={cursor}", ownerId, parameters);
+    }
+
+    public void exportOwnersBookings(long ownerId, HttpServletResponse response) throws IOException {
+        streamingClient.copy(API_PREFIX + "/owner/export", ownerId, response);
     }
-}
\ No newline at end of file
+}
@@ -11,9 +11,12 @@ import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.State;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Controller
@@ -27,8 +30,8 @@ public class BookingController {
     private static final String DEFAULT_FROM = "0";
 
     @PostMapping()
-    public ResponseEntity<Object> addBooking(@RequestHeader(value = HEADER) long bookerId,
-                                             @Valid @RequestBody BookingInputDto bookingInputDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> addBooking(@RequestHeader(value = HEADER) long bookerId,
+                                                                @Valid @RequestBody BookingInputDto bookingInputDto) {
         log.info("получен POST запрос на добавление нового бронирования с bookerId={}, body={}",
                 bookerId,
                 bookingInputDto);
@@ -36,50 +39,60 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    ResponseEntity<Object> patchBooking(@RequestHeader(value = HEADER) long ownerId,
-                                        @PathVariable(value = "bookingId") long bookingId,
-                                        @RequestParam(value = "approved") boolean isApproved) {
+    CompletableFuture<ResponseEntity<byte[]>> patchBooking(@RequestHeader(value = HEADER) long ownerId,
+                                                           @PathVariable(value = "bookingId") long bookingId,
+                                                           @RequestParam(value = "approved") boolean isApproved) {
         return bookingClient.updateBooking(bookingId, ownerId, isApproved);
     }
 
     @GetMapping("/{bookingId}")
-    ResponseEntity<Object> getBooking(@RequestHeader(value = HEADER) long userId,
-                                      @PathVariable(value = "bookingId") long bookingId) {
+    CompletableFuture<ResponseEntity<byte[]>> getBooking(@RequestHeader(value = HEADER) long userId,
+                                                         @PathVariable(value = "bookingId") long bookingId) {
         log.info("получен GET запрос на просмотр бронирования с id={}, userId={}", bookingId, userId);
 
         return bookingClient.getBooking(bookingId, userId);
     }
 
     @GetMapping("")
-    ResponseEntity<Object> getAllUsersBooking(@RequestHeader(HEADER) long bookerId,
-                                              @RequestParam(name = "state",
-                                                      defaultValue = "ALL") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
-                                              Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10")
-                                              Integer size) {
+    CompletableFuture<ResponseEntity<byte[]>> getAllUsersBooking(@RequestHeader(HEADER) long bookerId,
+                                                                 @RequestParam(name = "state",
+                                                                         defaultValue = "ALL") String stateParam,
+                                                                 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
+                                                                 Integer from,
+                                                                 @Positive @RequestParam(name = "size", defaultValue = "10")
+                                                                 Integer size,
+                                                                 @RequestParam(name = "cursor", defaultValue = "") String cursor) {
         State state = State.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("получен GET запрос на просмотр всех бронирований для bookerId={}, state={}, from={}, size={}",
-                bookerId, state, from, size);
-        return bookingClient.getAllUsersBookings(bookerId, state, from, size);
+        log.info("получен GET запрос на просмотр всех бронирований для bookerId={}, state={}, from={}, size={}, " +
+                "cursor={}", bookerId, state, from, size, cursor);
+        return bookingClient.getAllUsersBookings(bookerId, state, from, size, cursor);
     }
 
 
     @GetMapping("/owner")
-    ResponseEntity<Object> getAllOwnersBooking(@RequestHeader(value = HEADER) long ownerId,
-                                               @RequestParam(value = "state",
-                                                       defaultValue = "ALL") String stateParam,
-                                               @RequestParam(value = "from",
-                                                       defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
-                                               @RequestParam(value = "size",
-                                                       defaultValue = DEFAULT_SIZE) @Positive int size) {
-        log.info("получен GET запрос на просмотр всех бронирований для owner={}, state={}, from={}, size={}",
-                ownerId, stateParam, from, size);
+    CompletableFuture<ResponseEntity<byte[]>> getAllOwnersBooking(@RequestHeader(value = HEADER) long ownerId,
+                                                                  @RequestParam(value = "state",
+                                                                          defaultValue = "ALL") String stateParam,
+                                                                  @RequestParam(value = "from",
+                                                                          defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
+                                                                  @RequestParam(value = "size",
+                                                                          defaultValue = DEFAULT_SIZE) @Positive int size,
+                                                                  @RequestParam(value = "cursor", defaultValue = "") String cursor) {
+        log.info("получен GET запрос на просмотр всех бронирований для owner={}, state={}, from={}, size={}, " +
+                "cursor={}", ownerId, stateParam, from, size, cursor);
         State state = State.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 
-        return bookingClient.getAllOwnersBookings(ownerId, state, from, size);
+        return bookingClient.getAllOwnersBookings(ownerId, state, from, size, cursor);
+    }
+
+    // выгрузка держит поток Tomcat до конца: асинхронный ответ оборвался бы по spring.mvc.async.request-timeout
+    @GetMapping("/owner/export")
+    public void exportOwnersBookings(@RequestHeader(value = HEADER) long ownerId,
+                                     HttpServletResponse response) throws IOException {
+        log.info("получен GET запрос на выгрузку всех бронирований для owner={}", ownerId);
+        bookingClient.exportOwnersBookings(ownerId, response);
     }
 
     private void validateBookingData(BookingInputDto bookingInputDto) {
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.ContentTooLongException;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.ContentBufferEntity;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+import org.apache.http.nio.util.SimpleInputBuffer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+// как BasicAsyncResponseConsumer, но с пределом размера тела: ответ собирается в памяти целиком,
+// поэтому без предела один большой ответ сервера мог бы занять всю кучу шлюза
+class BoundedResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+    private static final int UNKNOWN_LENGTH_BUFFER_SIZE = 4096;
+
+    private final long maxBodyBytes;
+    private volatile HttpResponse response;
+    private volatile SimpleInputBuffer buffer;
+
+    BoundedResponseConsumer(long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected void onResponseReceived(HttpResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+        long length = entity.getContentLength();
+        if (length > maxBodyBytes) {
+            throw tooLong(length);
+        }
+        buffer = new SimpleInputBuffer(length < 0 ? UNKNOWN_LENGTH_BUFFER_SIZE : (int) length,
+                HeapByteBufferAllocator.INSTANCE);
+        response.setEntity(new ContentBufferEntity(entity, buffer));
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+        buffer.consumeContent(decoder);
+        if (buffer.length() > maxBodyBytes) {
+            throw tooLong(buffer.length());
+        }
+    }
+
+    @Override
+    protected HttpResponse buildResult(HttpContext context) {
+        return response;
+    }
+
+    @Override
+    protected void releaseResources() {
+        response = null;
+        buffer = null;
+    }
+
+    private ContentTooLongException tooLong(long length) {
+        return new ContentTooLongException("server response body of %d bytes exceeds %d bytes",
+                length, maxBodyBytes);
+    }
+}
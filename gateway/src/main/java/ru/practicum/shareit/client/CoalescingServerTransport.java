@@ -0,0 +1,63 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+public class CoalescingServerTransport implements ServerTransport {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final ServerTransport delegate;
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public CoalescingServerTransport(ServerTransport delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.leaders = meterRegistry.counter("shareit.gateway.coalescing.requests", "role", "leader");
+        this.followers = meterRegistry.counter("shareit.gateway.coalescing.requests", "role", "follower");
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                              URI uri,
+                                                              HttpHeaders headers,
+                                                              @Nullable byte[] body) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, uri, headers, body);
+        }
+        String key = uri + "|" + headers.getFirst(USER_ID_HEADER);
+        CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            followers.increment();
+            return existing.thenApply(Function.identity());
+        }
+        leaders.increment();
+        try {
+            delegate.exchange(method, uri, headers, body).whenComplete((response, e) -> {
+                // запросы, пришедшие после ответа, должны уйти на сервер заново
+                inFlight.remove(key, call);
+                if (e != null) {
+                    call.completeExceptionally(e);
+                } else {
+                    call.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+        }
+        return call.thenApply(Function.identity());
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrencyLimitingServerTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final GradientConcurrencyLimit limit;
+    private final double readReserve;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    public ConcurrencyLimitingServerTransport(ServerTransport delegate,
+                                              ServerClientProperties.ConcurrencyLimit config,
+                                              MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.limit = new GradientConcurrencyLimit(config);
+        this.readReserve = config.getReadReserve();
+        this.rejectedReads = meterRegistry.counter("shareit.gateway.upstream.concurrency.rejected",
+                "priority", "read");
+        this.rejectedWrites = meterRegistry.counter("shareit.gateway.upstream.concurrency.rejected",
+                "priority", "write");
+        Gauge.builder("shareit.gateway.upstream.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.upstream.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                              URI uri,
+                                                              HttpHeaders headers,
+                                                              @Nullable byte[] body) {
+        boolean read = method == HttpMethod.GET || method == HttpMethod.HEAD;
+        // часть лимита доступна только чтению: при перегрузке первыми отбрасываются записи
+        int admitted = read ? limit.getLimit() : (int) (limit.getLimit() * (1 - readReserve));
+        int current = inFlight.incrementAndGet();
+        if (current > admitted) {
+            inFlight.decrementAndGet();
+            (read ? rejectedReads : rejectedWrites).increment();
+            return CompletableFuture.failedFuture(new ServerUnavailableException("Server is overloaded", 1));
+        }
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<byte[]>> call;
+        try {
+            call = delegate.exchange(method, uri, headers, body);
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+        return call.whenComplete((response, e) -> {
+            inFlight.decrementAndGet();
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            // отказы предохранителя и переборки не доходят до сервера и ничего не говорят о его задержке
+            if (cause instanceof ServerUnavailableException) {
+                return;
+            }
+            boolean dropped = e != null || response.getStatusCode().is5xxServerError();
+            limit.onSample(System.nanoTime() - start, current, dropped);
+        });
+    }
+}
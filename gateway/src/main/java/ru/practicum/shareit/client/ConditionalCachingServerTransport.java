@@ -0,0 +1,113 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class ConditionalCachingServerTransport implements ServerTransport {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final ServerTransport delegate;
+    private final long maxBytes;
+    private final int maxBodyBytes;
+    private final Map<String, CachedResponse> responses = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private final Counter notModified;
+    private final Counter modified;
+    private final Counter uncached;
+
+    public ConditionalCachingServerTransport(ServerTransport delegate,
+                                             ServerClientProperties.ConditionalCache config,
+                                             MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxBytes = config.getMaxSize().toBytes();
+        this.maxBodyBytes = (int) config.getMaxBodySize().toBytes();
+        this.notModified = meterRegistry.counter("shareit.gateway.conditional-cache.requests", "result", "not-modified");
+        this.modified = meterRegistry.counter("shareit.gateway.conditional-cache.requests", "result", "modified");
+        this.uncached = meterRegistry.counter("shareit.gateway.conditional-cache.requests", "result", "uncached");
+        Gauge.builder("shareit.gateway.conditional-cache.size", this, ConditionalCachingServerTransport::size)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                              URI uri,
+                                                              HttpHeaders headers,
+                                                              @Nullable byte[] body) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, uri, headers, body);
+        }
+        // представление зависит от пользователя: владелец вещи видит бронирования
+        String key = uri + "|" + headers.getFirst(USER_ID_HEADER);
+        CachedResponse cached = get(key);
+        HttpHeaders requestHeaders = headers;
+        if (cached != null) {
+            requestHeaders = new HttpHeaders();
+            requestHeaders.putAll(headers);
+            requestHeaders.setIfNoneMatch(cached.eTag);
+        }
+        return delegate.exchange(method, uri, requestHeaders, body).thenApply(response -> {
+            if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                notModified.increment();
+                return ResponseEntity.ok().headers(cached.headers).body(cached.body);
+            }
+            String eTag = response.getHeaders().getETag();
+            byte[] responseBody = response.getBody();
+            if (response.getStatusCode() == HttpStatus.OK && eTag != null && responseBody != null
+                    && responseBody.length <= maxBodyBytes) {
+                modified.increment();
+                put(key, new CachedResponse(eTag, response.getHeaders(), responseBody));
+            } else {
+                uncached.increment();
+                remove(key);
+            }
+            return response;
+        });
+    }
+
+    private synchronized CachedResponse get(String key) {
+        return responses.get(key);
+    }
+
+    private synchronized void put(String key, CachedResponse response) {
+        remove(key);
+        responses.put(key, response);
+        cachedBytes += response.body.length;
+        Iterator<CachedResponse> eldest = responses.values().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().body.length;
+            eldest.remove();
+        }
+    }
+
+    private synchronized void remove(String key) {
+        CachedResponse removed = responses.remove(key);
+        if (removed != null) {
+            cachedBytes -= removed.body.length;
+        }
+    }
+
+    private synchronized long size() {
+        return cachedBytes;
+    }
+
+    @AllArgsConstructor
+    private static class CachedResponse {
+        private final String eTag;
+        private final HttpHeaders headers;
+        private final byte[] body;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.client;
+
+// лимит параллельных запросов по градиенту задержки: пока сглаженная задержка близка к минимальной (без очереди),
+// лимит растёт на sqrt(limit), а очередь на сервере уменьшает его пропорционально росту задержки
+public class GradientConcurrencyLimit {
+    private static final double RTT_ALPHA = 2.0 / (10 + 1);
+    private static final int MIN_RTT_WINDOW = 500;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private double estimatedLimit;
+    private double rtt;
+    // минимум по двум окнам замеров, чтобы базовая задержка следовала за долгосрочными изменениями сервера
+    private long minRtt = Long.MAX_VALUE;
+    private long previousMinRtt = Long.MAX_VALUE;
+    private int samplesInWindow;
+
+    public GradientConcurrencyLimit(ServerClientProperties.ConcurrencyLimit config) {
+        this.minLimit = config.getMinLimit();
+        this.maxLimit = config.getMaxLimit();
+        this.rttTolerance = config.getRttTolerance();
+        this.smoothing = config.getSmoothing();
+        this.estimatedLimit = config.getInitialLimit();
+    }
+
+    public synchronized int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF_RATIO);
+            return;
+        }
+        if (++samplesInWindow > MIN_RTT_WINDOW) {
+            previousMinRtt = minRtt;
+            minRtt = Long.MAX_VALUE;
+            samplesInWindow = 1;
+        }
+        minRtt = Math.min(minRtt, rttNanos);
+        rtt = rtt == 0 ? rttNanos : rtt + (rttNanos - rtt) * RTT_ALPHA;
+        // без нагрузки задержка ничего не говорит о пределе сервера
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+        double noLoadRtt = Math.min(minRtt, previousMinRtt);
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * noLoadRtt / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.util.EntityUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+// Тело ответа собирается в byte[], а не передаётся клиенту потоком: его объединяют, кэшируют и замеряют
+// декораторы транспорта. Память на ответ ограничена maxResponseSize, большие выгрузки идут через
+// ServerStreamingClient
+public class HttpAsyncClientTransport implements ServerTransport {
+    private final CloseableHttpAsyncClient httpClient;
+    private final long maxResponseBytes;
+
+    public HttpAsyncClientTransport(CloseableHttpAsyncClient httpClient, long maxResponseBytes) {
+        this.httpClient = httpClient;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                              URI uri,
+                                                              HttpHeaders headers,
+                                                              @Nullable byte[] body) {
+        RequestBuilder request = RequestBuilder.create(method.name()).setUri(uri);
+        headers.forEach((name, values) -> values.forEach(value -> request.addHeader(name, value)));
+        if (body != null) {
+            request.setEntity(new ByteArrayEntity(body));
+        }
+        CompletableFuture<ResponseEntity<byte[]>> result = new CompletableFuture<>();
+        httpClient.execute(HttpAsyncMethods.create(URIUtils.extractHost(uri), request.build()),
+                new BoundedResponseConsumer(maxResponseBytes),
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(HttpResponse response) {
+                        try {
+                            HttpEntity entity = response.getEntity();
+                            result.complete(ServerTransport.toGatewayResponse(response.getStatusLine().getStatusCode(),
+                                    toHttpHeaders(response.getAllHeaders()),
+                                    entity == null ? null : EntityUtils.toByteArray(entity)));
+                        } catch (IOException e) {
+                            result.completeExceptionally(e);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        result.completeExceptionally(e);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        result.cancel(false);
+                    }
+                });
+        return result;
+    }
+
+    private static HttpHeaders toHttpHeaders(Header[] responseHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : responseHeaders) {
+            headers.add(header.getName(), header.getValue());
+        }
+        return headers;
+    }
+}
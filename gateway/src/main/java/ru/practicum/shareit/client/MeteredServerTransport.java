@@ -0,0 +1,55 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MeteredServerTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public MeteredServerTransport(ServerTransport delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                              URI uri,
+                                                              HttpHeaders headers,
+                                                              @Nullable byte[] body) {
+        String client = clientOf(uri);
+        AtomicInteger clientInFlight = inFlight.computeIfAbsent(client, name ->
+                meterRegistry.gauge("shareit.gateway.upstream.in-flight", Tags.of("client", name), new AtomicInteger()));
+        clientInFlight.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return delegate.exchange(method, uri, headers, body)
+                .whenComplete((response, e) -> {
+                    clientInFlight.decrementAndGet();
+                    sample.stop(meterRegistry.timer("shareit.gateway.upstream.requests",
+                            "client", client,
+                            "method", method.name(),
+                            "status", response == null ? "IO_ERROR" : String.valueOf(response.getStatusCodeValue())));
+                });
+    }
+
+    private static String clientOf(URI uri) {
+        String path = uri.getPath();
+        if (path == null || path.length() <= 1) {
+            return "root";
+        }
+        int end = path.indexOf('/', 1);
+        return end < 0 ? path.substring(1) : path.substring(1, end);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+public class ResilientServerTransport implements ServerTransport {
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final ServerTransport delegate;
+    private final ServerClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final long slowCallNanos;
+    private final ConcurrentMap<String, RouteGuard> guards = new ConcurrentHashMap<>();
+
+    public ResilientServerTransport(ServerTransport delegate,
+                                    ServerClientProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.slowCallNanos = properties.getCircuitBreaker().getSlowCallDuration().toNanos();
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                              URI uri,
+                                                              HttpHeaders headers,
+                                                              @Nullable byte[] body) {
+        String route = method.name() + " " + ID_SEGMENT.matcher(uri.getPath()).replaceAll("/{id}");
+        RouteGuard guard = guards.computeIfAbsent(route, this::newGuard);
+        if (!guard.bulkhead.tryAcquire()) {
+            guard.bulkheadFull.increment();
+            return CompletableFuture.failedFuture(new ServerUnavailableException(
+                    "Too many concurrent requests to " + route, 1));
+        }
+        long start = System.nanoTime();
+        long permit = guard.circuitBreaker.tryAcquire(start);
+        if (permit == RouteCircuitBreaker.REJECTED) {
+            guard.bulkhead.release();
+            guard.circuitOpen.increment();
+            return CompletableFuture.failedFuture(new ServerUnavailableException(
+                    "Server is unavailable for " + route, guard.circuitBreaker.retryAfterSeconds(start)));
+        }
+        CompletableFuture<ResponseEntity<byte[]>> call;
+        try {
+            call = delegate.exchange(method, uri, headers, body);
+        } catch (RuntimeException e) {
+            guard.bulkhead.release();
+            guard.circuitBreaker.onResult(permit, true, System.nanoTime());
+            throw e;
+        }
+        return call.whenComplete((response, e) -> {
+            guard.bulkhead.release();
+            long end = System.nanoTime();
+            boolean failure = e != null
+                    || response.getStatusCode().is5xxServerError()
+                    || end - start > slowCallNanos;
+            guard.circuitBreaker.onResult(permit, failure, end);
+        });
+    }
+
+    private RouteGuard newGuard(String route) {
+        return new RouteGuard(route, properties, meterRegistry);
+    }
+
+    private static class RouteGuard {
+        private final Semaphore bulkhead;
+        private final RouteCircuitBreaker circuitBreaker;
+        private final Counter bulkheadFull;
+        private final Counter circuitOpen;
+
+        RouteGuard(String route, ServerClientProperties properties, MeterRegistry meterRegistry) {
+            int maxConcurrentCalls = properties.getBulkhead().getMaxConcurrentCalls();
+            this.bulkhead = new Semaphore(maxConcurrentCalls);
+            this.circuitBreaker = new RouteCircuitBreaker(route, properties.getCircuitBreaker());
+            this.bulkheadFull = meterRegistry.counter("shareit.gateway.upstream.rejected",
+                    "route", route, "reason", "bulkhead-full");
+            this.circuitOpen = meterRegistry.counter("shareit.gateway.upstream.rejected",
+                    "route", route, "reason", "circuit-open");
+            Gauge.builder("shareit.gateway.upstream.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                    .description("0 - closed, 1 - half-open, 2 - open")
+                    .tag("route", route)
+                    .register(meterRegistry);
+            Gauge.builder("shareit.gateway.upstream.bulkhead.in-use", bulkhead,
+                            semaphore -> maxConcurrentCalls - semaphore.availablePermits())
+                    .tag("route", route)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+
+    public RestTemplateTransport(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                              URI uri,
+                                                              HttpHeaders headers,
+                                                              @Nullable byte[] body) {
+        ResponseEntity<byte[]> response;
+        try {
+            response = rest.exchange(uri, method, new HttpEntity<>(body, headers), byte[].class);
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(ServerTransport.toGatewayResponse(e.getRawStatusCode(),
+                    e.getResponseHeaders(), e.getResponseBodyAsByteArray()));
+        } catch (RestClientException e) {
+            CompletableFuture<ResponseEntity<byte[]>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return CompletableFuture.completedFuture(ServerTransport.toGatewayResponse(response.getStatusCodeValue(),
+                response.getHeaders(), response.getBody()));
+    }
+}
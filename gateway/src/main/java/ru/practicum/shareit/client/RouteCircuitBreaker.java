@@ -0,0 +1,103 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class RouteCircuitBreaker {
+    public static final long REJECTED = -1;
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String route;
+    private final ServerClientProperties.CircuitBreaker config;
+    private final long openNanos;
+    private final boolean[] outcomes;
+    private int outcomeIndex;
+    private int outcomeCount;
+    private int failureCount;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+    // результаты вызовов, начатых до смены состояния, не должны на него влиять
+    private long epoch;
+
+    public RouteCircuitBreaker(String route, ServerClientProperties.CircuitBreaker config) {
+        this.route = route;
+        this.config = config;
+        this.openNanos = config.getOpenDuration().toNanos();
+        this.outcomes = new boolean[config.getSlidingWindowSize()];
+    }
+
+    public synchronized long tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                return REJECTED;
+            }
+            transitionTo(State.HALF_OPEN, now);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= config.getPermittedCallsInHalfOpenState()) {
+                return REJECTED;
+            }
+            probesInFlight++;
+        }
+        return epoch;
+    }
+
+    public synchronized void onResult(long permit, boolean failure, long now) {
+        if (permit != epoch) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+            if (failure) {
+                transitionTo(State.OPEN, now);
+            } else if (++probeSuccesses >= config.getPermittedCallsInHalfOpenState()) {
+                transitionTo(State.CLOSED, now);
+            }
+            return;
+        }
+        if (outcomeCount == outcomes.length) {
+            if (outcomes[outcomeIndex]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[outcomeIndex] = failure;
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+        if (failure) {
+            failureCount++;
+        }
+        if (outcomeCount >= config.getMinimumNumberOfCalls()
+                && failureCount * 100 >= config.getFailureRateThreshold() * outcomeCount) {
+            transitionTo(State.OPEN, now);
+        }
+    }
+
+    public synchronized long retryAfterSeconds(long now) {
+        long remaining = state == State.OPEN ? openNanos - (now - openedAt) : 0;
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void transitionTo(State newState, long now) {
+        log.warn("Маршрут {}: circuit breaker {} -> {}", route, state, newState);
+        state = newState;
+        epoch++;
+        openedAt = now;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        outcomeIndex = 0;
+        outcomeCount = 0;
+        failureCount = 0;
+    }
+}
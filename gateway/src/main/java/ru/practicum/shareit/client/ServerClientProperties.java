@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+    private Duration idleTimeout = Duration.ofSeconds(15);
+    private int maxConnections = 200;
+    private int maxConnectionsPerRoute = 100;
+    private DataSize maxResponseSize = DataSize.ofMegabytes(8);
+    private boolean coalesceGets = true;
+    private Bulkhead bulkhead = new Bulkhead();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+    private ConditionalCache conditionalCache = new ConditionalCache();
+    private Export export = new Export();
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private int failureRateThreshold = 50;
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class ConcurrencyLimit {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        private double rttTolerance = 2.0;
+        private double smoothing = 0.2;
+        private double readReserve = 0.2;
+    }
+
+    @Getter
+    @Setter
+    public static class ConditionalCache {
+        private boolean enabled = true;
+        private DataSize maxSize = DataSize.ofMegabytes(32);
+        private DataSize maxBodySize = DataSize.ofKilobytes(64);
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+        private int maxConnections = 8;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+@Component
+public class ServerConnectionPoolMonitor {
+    private final ConnPoolControl<HttpRoute> pool;
+    private final ObjectProvider<HttpClientConnectionManager> blockingConnectionManager;
+    private final ObjectProvider<NHttpClientConnectionManager> nonBlockingConnectionManager;
+    private final ServerClientProperties properties;
+
+    public ServerConnectionPoolMonitor(ConnPoolControl<HttpRoute> pool,
+                                       ObjectProvider<HttpClientConnectionManager> blockingConnectionManager,
+                                       ObjectProvider<NHttpClientConnectionManager> nonBlockingConnectionManager,
+                                       ServerClientProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.blockingConnectionManager = blockingConnectionManager;
+        this.nonBlockingConnectionManager = nonBlockingConnectionManager;
+        this.properties = properties;
+        registerPoolGauge(meterRegistry, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, "pending", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, "max", PoolStats::getMax);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit-server.client.idle-eviction-interval-ms:5000}")
+    public void evictIdleConnections() {
+        long idleMillis = properties.getIdleTimeout().toMillis();
+        blockingConnectionManager.ifAvailable(connectionManager -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleMillis, TimeUnit.MILLISECONDS);
+        });
+        nonBlockingConnectionManager.ifAvailable(connectionManager -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleMillis, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void registerPoolGauge(MeterRegistry meterRegistry, String state, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("shareit.gateway.http.pool.connections", pool, p -> value.applyAsDouble(p.getTotalStats()))
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+
+// Выгрузки идут в обход ServerTransport: тело не собирается в byte[], а копируется в ответ по мере чтения.
+// Многосекундный запрос исказил бы и задержки для лимита параллельности, и медленные вызовы circuit breaker,
+// поэтому у выгрузок свой небольшой пул соединений
+public class ServerStreamingClient implements Closeable {
+    private final CloseableHttpClient httpClient;
+    private final String serverUrl;
+    private final MeterRegistry meterRegistry;
+
+    public ServerStreamingClient(CloseableHttpClient httpClient, String serverUrl, MeterRegistry meterRegistry) {
+        this.httpClient = httpClient;
+        this.serverUrl = serverUrl;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void copy(String path, long userId, HttpServletResponse response) throws IOException {
+        HttpGet request = new HttpGet(URI.create(serverUrl + path));
+        request.setHeader("X-Sharer-User-Id", String.valueOf(userId));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "IO_ERROR";
+        CloseableHttpResponse upstream;
+        try {
+            upstream = httpClient.execute(request);
+        } catch (IOException e) {
+            sample.stop(meterRegistry.timer("shareit.gateway.upstream.exports", "status", status));
+            throw new ServerUnavailableException("Server is unavailable: " + e.getMessage(), 1);
+        }
+        try (upstream) {
+            response.setStatus(upstream.getStatusLine().getStatusCode());
+            for (Header header : upstream.getAllHeaders()) {
+                if (!ServerTransport.HOP_BY_HOP_HEADERS.contains(header.getName().toLowerCase())) {
+                    response.addHeader(header.getName(), header.getValue());
+                }
+            }
+            HttpEntity entity = upstream.getEntity();
+            if (entity != null) {
+                entity.writeTo(response.getOutputStream());
+            }
+            status = String.valueOf(upstream.getStatusLine().getStatusCode());
+        } finally {
+            sample.stop(meterRegistry.timer("shareit.gateway.upstream.exports", "status", status));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public interface ServerTransport {
+    Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(),
+            "keep-alive",
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.UPGRADE.toLowerCase()
+    );
+
+    CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                       URI uri,
+                                                       HttpHeaders headers,
+                                                       @Nullable byte[] body);
+
+    static ResponseEntity<byte[]> toGatewayResponse(int status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        HttpHeaders gatewayHeaders = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                    gatewayHeaders.addAll(name, values);
+                }
+            });
+        }
+        return ResponseEntity.status(status)
+                .headers(gatewayHeaders)
+                .body(body == null || body.length == 0 ? null : body);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ServerClientProperties.class)
+public class ServerTransportConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "blocking")
+    public PoolingHttpClientConnectionManager blockingConnectionManager(ServerClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getIdleTimeout().toMillis() / 2);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "blocking")
+    public CloseableHttpClient blockingHttpClient(ServerClientProperties properties,
+                                                  PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig(properties))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "blocking")
+    public ServerTransport restTemplateTransport(ServerClientProperties properties,
+                                                 CloseableHttpClient httpClient,
+                                                 RestTemplateBuilder builder,
+                                                 MeterRegistry meterRegistry) {
+        return decorate(new RestTemplateTransport(builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build()), properties, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "non-blocking", matchIfMissing = true)
+    public PoolingNHttpClientConnectionManager nonBlockingConnectionManager(ServerClientProperties properties)
+            throws IOReactorException {
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSoTimeout((int) properties.getReadTimeout().toMillis())
+                .build();
+        PoolingNHttpClientConnectionManager connectionManager =
+                new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig));
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        return connectionManager;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "non-blocking", matchIfMissing = true)
+    public CloseableHttpAsyncClient nonBlockingHttpClient(ServerClientProperties properties,
+                                                          PoolingNHttpClientConnectionManager connectionManager) {
+        return HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig(properties))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "non-blocking", matchIfMissing = true)
+    public ServerTransport httpAsyncClientTransport(ServerClientProperties properties,
+                                                    CloseableHttpAsyncClient httpClient,
+                                                    MeterRegistry meterRegistry) {
+        return decorate(new HttpAsyncClientTransport(httpClient, properties.getMaxResponseSize().toBytes()),
+                properties, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ServerStreamingClient serverStreamingClient(@Value("${shareit-server.url}") String serverUrl,
+                                                       ServerClientProperties properties,
+                                                       MeterRegistry meterRegistry) {
+        int maxConnections = properties.getExport().getMaxConnections();
+        return new ServerStreamingClient(HttpClients.custom()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultRequestConfig(requestConfig(properties))
+                .build(), serverUrl, meterRegistry);
+    }
+
+    private static ServerTransport decorate(ServerTransport transport,
+                                            ServerClientProperties properties,
+                                            MeterRegistry meterRegistry) {
+        ServerTransport decorated = new ResilientServerTransport(
+                new MeteredServerTransport(transport, meterRegistry), properties, meterRegistry);
+        if (properties.getConcurrencyLimit().isEnabled()) {
+            decorated = new ConcurrencyLimitingServerTransport(decorated, properties.getConcurrencyLimit(),
+                    meterRegistry);
+        }
+        if (properties.getConditionalCache().isEnabled()) {
+            decorated = new ConditionalCachingServerTransport(decorated, properties.getConditionalCache(),
+                    meterRegistry);
+        }
+        return properties.isCoalesceGets()
+                ? new CoalescingServerTransport(decorated, meterRegistry)
+                : decorated;
+    }
+
+    private static RequestConfig requestConfig(ServerClientProperties properties) {
+        return RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class ServerUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServerUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
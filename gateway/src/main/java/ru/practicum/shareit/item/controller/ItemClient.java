@@ -1,60 +1,80 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerStreamingClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.item.comment.dto.CommentInputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private final ServerStreamingClient streamingClient;
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      ServerTransport transport,
+                      ServerStreamingClient streamingClient,
+                      ObjectMapper objectMapper) {
+        super(transport, objectMapper, serverUrl + API_PREFIX);
+        this.streamingClient = streamingClient;
     }
 
-    public ResponseEntity<Object> addItem(long ownerId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> addItem(long ownerId, ItemDto itemDto) {
         return post("", ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentInputDto commentInputDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> addItems(long ownerId, List<ItemDto> itemDtos) {
+        return post("/batch", ownerId, itemDtos);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> addComment(long userId, long itemId,
+                                                                CommentInputDto commentInputDto) {
         return post("/" + itemId + "/comment", userId, commentInputDto);
     }
 
-    public ResponseEntity<Object> updateItem(long ownerId, long itemId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateItem(long ownerId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, long id) {
+    public CompletableFuture<ResponseEntity<byte[]>> getItemById(long userId, long id) {
         return get("/" + id, userId);
     }
 
-    public ResponseEntity<Object> getAllOwnersItems(long ownerId, int from, int size) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllOwnersItems(long ownerId, int from, int size,
+                                                                       String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
-                "size", size
+                "size", size,
+                "cursor", cursor
         );
-        return get("?from={from}&size={size}", ownerId, parameters);
+        return get("?from={from}&size={size}&cursor={cursor}", ownerId, parameters);
+    }
+
+    public void exportOwnersItems(long ownerId, HttpServletResponse response) throws IOException {
+        streamingClient.copy(API_PREFIX + "/export", ownerId, response);
     }
 
-    public ResponseEntity<Object> findItems(long userId, String text, int from, int size) {
+    public CompletableFuture<ResponseEntity<byte[]>> findItems(long userId, String text, LocalDateTime start,
+                                                               LocalDateTime end,
+                                                               int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "start", start == null ? "" : start,
+                "end", end == null ? "" : end,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
     }
 }
@@ -2,15 +2,25 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.item.comment.dto.CommentInputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -22,18 +32,27 @@ public class ItemController {
     private static final String HEADER = "X-Sharer-User-Id";
     private static final String DEFAULT_SIZE = "25";
     private static final String DEFAULT_FROM = "0";
+    private static final int MAX_BATCH_SIZE = 5000;
 
     @PostMapping
-    public ResponseEntity<Object> postItem(@RequestHeader(value = HEADER) long ownerId,
-                                           @Valid @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> postItem(@RequestHeader(value = HEADER) long ownerId,
+                                                              @Valid @RequestBody ItemDto itemDto) {
         log.info("получен POST запрос на добавление новой вещи с body={}, ownerId={}", itemDto, ownerId);
         return itemClient.addItem(ownerId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<byte[]>> postItems(@RequestHeader(value = HEADER) long ownerId,
+                                                               @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                               List<@Valid ItemDto> itemDtos) {
+        log.info("получен POST запрос на добавление {} вещей, ownerId={}", itemDtos.size(), ownerId);
+        return itemClient.addItems(ownerId, itemDtos);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> postComment(@RequestHeader(value = HEADER) long userId,
-                                              @Valid @RequestBody CommentInputDto commentInputDto,
-                                              @PathVariable(value = "itemId") long itemId) {
+    public CompletableFuture<ResponseEntity<byte[]>> postComment(@RequestHeader(value = HEADER) long userId,
+                                                                 @Valid @RequestBody CommentInputDto commentInputDto,
+                                                                 @PathVariable(value = "itemId") long itemId) {
         log.info("получен POST запрос на добавление нового комментария с body={}, itemId={} , userId={}",
                 commentInputDto,
                 itemId,
@@ -42,39 +61,64 @@ public class ItemController {
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(value = HEADER) long ownerId,
-                                             @RequestBody ItemDto itemDto,
-                                             @PathVariable(value = "id") long itemId) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateItem(@RequestHeader(value = HEADER) long ownerId,
+                                                                @RequestBody ItemDto itemDto,
+                                                                @PathVariable(value = "id") long itemId) {
         log.info("получен PATCH запрос на обновление вещи с id={}, requestBody={}, ownerId={}",
                 itemId, itemDto, ownerId);
         return itemClient.updateItem(ownerId, itemId, itemDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(value = HEADER) long userId,
-                                              @PathVariable(value = "id") long id) {
+    public CompletableFuture<ResponseEntity<byte[]>> getItemById(@RequestHeader(value = HEADER) long userId,
+                                                                 @PathVariable(value = "id") long id) {
         log.info("получен GET запрос на показ веши с id={}", id);
         return itemClient.getItemById(userId, id);
     }
 
     @GetMapping("")
-    public ResponseEntity<Object> getAllOwnersItems(@RequestHeader(value = HEADER) long ownerId,
-                                                    @RequestParam(value = "from",
-                                                            defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
-                                                    @RequestParam(value = "size",
-                                                            defaultValue = DEFAULT_SIZE) @Positive int size
-    ) {
-        log.info("получен GET запрос на показ всех вещей владельца с ownerId={} from={} size={}", ownerId, from, size);
-        return itemClient.getAllOwnersItems(ownerId, from, size);
+    public CompletableFuture<ResponseEntity<byte[]>> getAllOwnersItems(@RequestHeader(value = HEADER) long ownerId,
+                                                                       @RequestParam(value = "from",
+                                                                               defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
+                                                                       @RequestParam(value = "size",
+                                                                               defaultValue = DEFAULT_SIZE) @Positive int size,
+                                                                       @RequestParam(value = "cursor", defaultValue = "") String cursor
+                       ) {
+        log.info("получен GET запрос на показ всех вещей владельца с ownerId={} from={} size={} cursor={}",
+                ownerId, from, size, cursor);
+        return itemClient.getAllOwnersItems(ownerId, from, size, cursor);
+    }
+
+    // выгрузка держит поток Tomcat до конца: асинхронный ответ оборвался бы по spring.mvc.async.request-timeout
+    @GetMapping("/export")
+    public void exportOwnersItems(@RequestHeader(value = HEADER) long ownerId,
+                                  HttpServletResponse response) throws IOException {
+        log.info("получен GET запрос на выгрузку всех вещей владельца с ownerId={}", ownerId);
+        itemClient.exportOwnersItems(ownerId, response);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> findItems(@RequestHeader(value = "X-Sharer-User-Id") long userId,
-                                            @RequestParam(value = "text") String text,
-                                            @RequestParam(value = "from", defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
-                                            @RequestParam(value = "size", defaultValue = DEFAULT_SIZE) @Positive int size
-    ) {
-        log.info("получен GET запрос найти все вещи с текстом text={} from={} size={}", text, from, size);
-        return itemClient.findItems(userId, text, from, size);
+    public CompletableFuture<ResponseEntity<byte[]>> findItems(@RequestHeader(value = "X-Sharer-User-Id") long userId,
+                                                               @RequestParam(value = "text") String text,
+                                                               @RequestParam(value = "start", required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                               @RequestParam(value = "end", required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                               @RequestParam(value = "from", defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
+                                                               @RequestParam(value = "size", defaultValue = DEFAULT_SIZE) @Positive int size
+                       ) {
+        log.info("получен GET запрос найти все вещи с текстом text={} start={} end={} from={} size={}",
+                text, start, end, from, size);
+        validateSearchPeriod(start, end);
+        return itemClient.findItems(userId, text, start, end, from, size);
+    }
+
+    private void validateSearchPeriod(LocalDateTime start, LocalDateTime end) {
+        if ((start == null) != (end == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error: start and end must be set together");
+        }
+        if (start != null && !end.isAfter(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error: end date must be after start date");
+        }
     }
 }
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"error\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<RouteGroup, TokenBucketRateLimiter> limiters = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejections = new EnumMap<>(RouteGroup.class);
+    private final int maxBuckets;
+    private final AtomicLong lastOverflowEviction = new AtomicLong();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.maxBuckets = properties.getMaxBuckets();
+        limiters.put(RouteGroup.SEARCH, limiter(properties.getSearch()));
+        limiters.put(RouteGroup.EXPORTS, limiter(properties.getExports()));
+        limiters.put(RouteGroup.READS, limiter(properties.getReads()));
+        limiters.put(RouteGroup.WRITES, limiter(properties.getWrites()));
+        for (RouteGroup group : RouteGroup.values()) {
+            String tag = group.name().toLowerCase();
+            rejections.put(group, meterRegistry.counter("shareit.gateway.rate-limit.rejected", "group", tag));
+            Gauge.builder("shareit.gateway.rate-limit.buckets", limiters.get(group), TokenBucketRateLimiter::size)
+                    .tag("group", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteGroup group = RouteGroup.of(request);
+        TokenBucketRateLimiter limiter = limiters.get(group);
+        long now = System.nanoTime();
+        long waitNanos = limiter.tryAcquire(keyOf(request), now);
+        if (limiter.size() > maxBuckets) {
+            evictOnOverflow(now);
+        }
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        rejections.get(group).increment();
+        log.warn("Превышен лимит запросов {} для {}", group, keyOf(request));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                waitNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.gateway.rate-limit.eviction-interval-ms:30000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        limiters.values().forEach(limiter -> limiter.evictIdle(now));
+    }
+
+    private void evictOnOverflow(long now) {
+        long last = lastOverflowEviction.get();
+        if (now - last > TimeUnit.SECONDS.toNanos(1) && lastOverflowEviction.compareAndSet(last, now)) {
+            evictIdleBuckets();
+        }
+    }
+
+    private static String keyOf(HttpServletRequest request) {
+        String userId = request.getHeader(HEADER);
+        return userId != null ? userId : "ip:" + request.getRemoteAddr();
+    }
+
+    private static TokenBucketRateLimiter limiter(RateLimitProperties.Limit limit) {
+        return new TokenBucketRateLimiter(limit.getRatePerSecond(), limit.getBurst());
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int maxBuckets = 100_000;
+    private long evictionIntervalMs = 30_000;
+    private Limit search = new Limit(5, 10);
+    private Limit exports = new Limit(0.1, 2);
+    private Limit reads = new Limit(50, 100);
+    private Limit writes = new Limit(10, 20);
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private double ratePerSecond;
+        private int burst;
+
+        public Limit() {
+        }
+
+        public Limit(double ratePerSecond, int burst) {
+            this.ratePerSecond = ratePerSecond;
+            this.burst = burst;
+        }
+    }
+}
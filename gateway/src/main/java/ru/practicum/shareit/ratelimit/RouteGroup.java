@@ -0,0 +1,17 @@
+package ru.practicum.shareit.ratelimit;
+
+import javax.servlet.http.HttpServletRequest;
+
+public enum RouteGroup {
+    SEARCH, EXPORTS, READS, WRITES;
+
+    public static RouteGroup of(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/items/search")) {
+            return SEARCH;
+        }
+        if (request.getRequestURI().endsWith("/export")) {
+            return EXPORTS;
+        }
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()) ? READS : WRITES;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// token bucket в форме GCRA: состояние корзины - одно "теоретическое время прихода", обновляемое через CAS;
+// корзина со временем в прошлом полна, и её удаление не меняет ни одного решения
+public class TokenBucketRateLimiter {
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException(String.format("illegal rate limit: %s/s, burst %d", ratePerSecond, burst));
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+
+    // 0 - запрос пропущен, иначе сколько наносекунд ждать до повтора
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong arrival = buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        while (true) {
+            long theoreticalArrival = arrival.get();
+            long allowedAt = Math.max(theoreticalArrival, nowNanos);
+            long wait = allowedAt - toleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(theoreticalArrival, allowedAt + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public void evictIdle(long nowNanos) {
+        buckets.values().removeIf(arrival -> arrival.get() - nowNanos <= 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
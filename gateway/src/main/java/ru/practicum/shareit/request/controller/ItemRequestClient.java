@@ -1,38 +1,37 @@
 package ru.practicum.shareit.request.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.request.dto.ItemRequestInputDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                             ServerTransport transport,
+                             ObjectMapper objectMapper) {
+        super(transport, objectMapper, serverUrl + API_PREFIX);
     }
 
-    public ResponseEntity<Object> addItemRequest(long requesterId, ItemRequestInputDto itemRequestInputDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> addItemRequest(long requesterId,
+                                                                    ItemRequestInputDto itemRequestInputDto) {
         return post("", requesterId, itemRequestInputDto);
     }
 
-    public ResponseEntity<Object> getItemRequestById(long userId, long requestId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getItemRequestById(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getAllRequestersItemRequests(long requesterId, int from, int size) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllRequestersItemRequests(long requesterId, int from,
+                                                                                  int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -40,11 +39,13 @@ public class ItemRequestClient extends BaseClient {
         return get("?from={from}&size={size}", requesterId, parameters);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllItemRequests(long userId, int from, int size,
+                                                                        String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
-                "size", size
+                "size", size,
+                "cursor", cursor
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get("/all?from={from}&size={size}&cursor={cursor}", userId, parameters);
     }
 }
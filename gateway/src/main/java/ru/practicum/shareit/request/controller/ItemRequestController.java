@@ -10,6 +10,7 @@ import ru.practicum.shareit.request.dto.ItemRequestInputDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -23,33 +24,36 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> postItemRequest(@RequestHeader(value = HEADER) long requesterId,
-                                                  @Valid @RequestBody ItemRequestInputDto itemRequestInputDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> postItemRequest(@RequestHeader(value = HEADER) long requesterId,
+                                                                     @Valid @RequestBody ItemRequestInputDto itemRequestInputDto) {
         log.info("получен POST запрос на добавление нового itemRequest with body={}, requesterId={}",
                 itemRequestInputDto, requesterId);
         return itemRequestClient.addItemRequest(requesterId, itemRequestInputDto);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader(value = HEADER) long userId,
-                                                     @PathVariable(value = "requestId") long requestId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getItemRequestById(@RequestHeader(value = HEADER) long userId,
+                                                                        @PathVariable(value = "requestId") long requestId) {
         log.info("получен GET запрос на получение itemRequest с id={}", requestId);
         return itemRequestClient.getItemRequestById(userId, requestId);
     }
 
     @GetMapping("")
-    public ResponseEntity<Object> getAllRequestersItemRequests(@RequestHeader(value = HEADER) long requesterId,
-                                                               @RequestParam(value = "from", defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
-                                                               @RequestParam(value = "size", defaultValue = DEFAULT_SIZE) @Positive int size) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllRequestersItemRequests(@RequestHeader(value = HEADER) long requesterId,
+                                                                                  @RequestParam(value = "from", defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
+                                                                                  @RequestParam(value = "size", defaultValue = DEFAULT_SIZE) @Positive int size) {
         log.info("получен GET запрос на показ всех вещей requesterId={} from={} size={}", requesterId, from, size);
         return itemRequestClient.getAllRequestersItemRequests(requesterId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItemRequests(@RequestHeader(value = HEADER) long userId,
-                                                     @RequestParam(value = "from", defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
-                                                     @RequestParam(value = "size", defaultValue = DEFAULT_SIZE) @Positive int size) {
-        log.info("получен GET запрос на показ всех вещей userId={} from={} size={}", userId, from, size);
-        return itemRequestClient.getAllItemRequests(userId, from, size);
+    public CompletableFuture<ResponseEntity<byte[]>> getAllItemRequests(
+                               @RequestHeader(value = HEADER) long userId,
+                               @RequestParam(value = "from", defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
+                               @RequestParam(value = "size", defaultValue = DEFAULT_SIZE) @Positive int size,
+                               @RequestParam(value = "cursor", defaultValue = "") String cursor) {
+        log.info("получен GET запрос на показ всех вещей userId={} from={} size={} cursor={}",
+                userId, from, size, cursor);
+        return itemRequestClient.getAllItemRequests(userId, from, size, cursor);
     }
 }
@@ -1,44 +1,51 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      ServerTransport transport,
+                      ObjectMapper objectMapper) {
+        super(transport, objectMapper, serverUrl + API_PREFIX);
     }
 
-    public ResponseEntity<Object> addUser(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> addUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getUserById(long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserDto userDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> getUserIds(long after, int size) {
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "size", size
+        );
+        return get("/ids?after={after}&size={size}", null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> updateUser(long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> deleteUserById(Long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> deleteUserById(Long userId) {
         return delete("/" + userId);
     }
 }
@@ -7,8 +7,10 @@ import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.membership.UserMembership;
 
 import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Controller
@@ -17,34 +19,35 @@ import javax.validation.Valid;
 @Validated
 public class UserController {
     private final UserClient userClient;
+    private final UserMembership userMembership;
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@Valid @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> addUser(@Valid @RequestBody UserDto userDto) {
         log.info("Получен POST на добавление нового пользователя с body={}", userDto);
-        return userClient.addUser(userDto);
+        return userClient.addUser(userDto).thenApply(userMembership::onUserAdded);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable(value = "userId") long id) {
+    public CompletableFuture<ResponseEntity<byte[]>> getUserById(@PathVariable(value = "userId") long id) {
         log.info("Получен GET запрос на показ пользователя с id={}", id);
         return userClient.getUserById(id);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@RequestBody UserDto userDto, @PathVariable(value = "userId") long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateUser(@RequestBody UserDto userDto, @PathVariable(value = "userId") long userId) {
         log.info("получен PATCH запрос на обновление пользователя с id={}, requestBody={}", userId, userDto);
         return userClient.updateUser(userId, userDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUsers() {
         log.info("получен GET запрос на показ списка пользователей");
         return userClient.getAllUsers();
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUserById(@PathVariable("userId") Long id) {
+    public CompletableFuture<ResponseEntity<byte[]>> deleteUserById(@PathVariable("userId") Long id) {
         log.info("получен DELETE запрос на удаление пользователя с id= {}", id);
-        return userClient.deleteUserById(id);
+        return userClient.deleteUserById(id).thenApply(response -> userMembership.onUserDeleted(id, response));
     }
 }
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.user.membership;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+@Slf4j
+public class UnknownUserFilter extends OncePerRequestFilter {
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final Pattern ITEM_PATH = Pattern.compile("/items/[^/]+");
+
+    private final UserMembership userMembership;
+    private final Counter rejections;
+
+    public UnknownUserFilter(UserMembership userMembership, MeterRegistry meterRegistry) {
+        this.userMembership = userMembership;
+        this.rejections = meterRegistry.counter("shareit.gateway.user-membership.rejected");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return request.getHeader(HEADER) == null
+                || uri.startsWith("/actuator")
+                || uri.startsWith("/users")
+                || isUserOptional(request.getMethod(), uri);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long userId;
+        try {
+            userId = Long.parseLong(request.getHeader(HEADER));
+        } catch (NumberFormatException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!userMembership.isKnownAbsent(userId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        rejections.increment();
+        log.debug("Запрос {} {} от несуществующего пользователя id={} отклонён", request.getMethod(),
+                request.getRequestURI(), userId);
+        response.setStatus(HttpStatus.NOT_FOUND.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(String.format("{\"error\":\"Пользователь с id=%d не найден\"}", userId)
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    // карточку вещи и поиск сервер отдаёт без проверки пользователя
+    private static boolean isUserOptional(String method, String uri) {
+        return ("GET".equals(method) || "HEAD".equals(method))
+                && (uri.startsWith("/items/search") || ITEM_PATH.matcher(uri).matches());
+    }
+}
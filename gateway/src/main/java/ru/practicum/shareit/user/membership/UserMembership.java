@@ -0,0 +1,181 @@
+package ru.practicum.shareit.user.membership;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.practicum.shareit.user.controller.UserClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@Slf4j
+public class UserMembership {
+    private final UserClient userClient;
+    private final ObjectMapper objectMapper;
+    private final UserMembershipProperties properties;
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+    private final Counter refreshFailures;
+    private volatile Snapshot snapshot;
+    private long seenUpTo;
+    private long lastRebuildNanos;
+
+    public UserMembership(UserClient userClient,
+                          ObjectMapper objectMapper,
+                          UserMembershipProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.userClient = userClient;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.refreshFailures = meterRegistry.counter("shareit.gateway.user-membership.refresh.failures");
+        Gauge.builder("shareit.gateway.user-membership.filter.size", this, UserMembership::filterSize)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.user-membership.deleted", deleted, Set::size)
+                .register(meterRegistry);
+    }
+
+    // false означает «может существовать»: окончательно решает сервер
+    public boolean isKnownAbsent(long userId) {
+        if (deleted.contains(userId)) {
+            return true;
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            return false;
+        }
+        if (userId > current.confirmedUpTo) {
+            // между обновлениями новые id могли появиться только в пределах запаса
+            return userId > current.seenUpTo + properties.getIdHeadroom();
+        }
+        return !current.filter.mightContain(userId);
+    }
+
+    public ResponseEntity<byte[]> onUserAdded(ResponseEntity<byte[]> response) {
+        Snapshot current = snapshot;
+        if (current == null || !response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return response;
+        }
+        try {
+            current.filter.put(objectMapper.readTree(response.getBody()).path("id").asLong());
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать id добавленного пользователя: {}", e.getMessage());
+        }
+        return response;
+    }
+
+    public ResponseEntity<byte[]> onUserDeleted(long userId, ResponseEntity<byte[]> response) {
+        if (properties.isEnabled() && response.getStatusCode().is2xxSuccessful()) {
+            deleted.add(userId);
+        }
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.gateway.user-membership.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        Snapshot current = snapshot;
+        try {
+            if (current == null
+                    || now - lastRebuildNanos >= TimeUnit.MILLISECONDS.toNanos(properties.getRebuildIntervalMs())) {
+                rebuild(now);
+            } else {
+                update(current);
+            }
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.warn("Не удалось обновить список id пользователей: {}", e.getMessage());
+        }
+    }
+
+    // Bloom-фильтр не умеет удалять, поэтому он периодически строится заново,
+    // а удалённые до начала выборки id больше не нужно держать отдельно
+    private void rebuild(long now) {
+        Set<Long> deletedBeforeScan = Set.copyOf(deleted);
+        long[] ids = fetchIdsAfter(0);
+        BloomFilter filter = new BloomFilter(Math.max(properties.getExpectedUsers(), 2L * ids.length),
+                properties.getFalsePositiveProbability());
+        for (long id : ids) {
+            filter.put(id);
+        }
+        long maxId = ids.length == 0 ? 0 : ids[ids.length - 1];
+        snapshot = new Snapshot(filter, belowRecheckWindow(Math.min(seenUpTo, maxId)), maxId);
+        seenUpTo = maxId;
+        deleted.removeAll(deletedBeforeScan);
+        lastRebuildNanos = now;
+        log.info("Фильтр id пользователей построен заново: {} id, {} байт", ids.length, filter.sizeInBytes());
+    }
+
+    // Id из последовательности коммитятся не по порядку: сервер выдаёт их блоками (pooled, по 50),
+    // и транзакция с меньшим id может закоммититься на несколько обновлений позже. Поэтому каждое
+    // обновление заново читает окно id-recheck-window ниже максимума предыдущей выборки, а id из
+    // этого окна пропускаются к серверу. Отсутствие считается достоверным только ниже окна
+    private void update(Snapshot current) {
+        long recheckFrom = belowRecheckWindow(seenUpTo);
+        long[] ids = fetchIdsAfter(Math.min(current.confirmedUpTo, recheckFrom));
+        for (long id : ids) {
+            current.filter.put(id);
+        }
+        if (ids.length > 0) {
+            seenUpTo = Math.max(seenUpTo, ids[ids.length - 1]);
+        }
+        snapshot = new Snapshot(current.filter, recheckFrom, seenUpTo);
+    }
+
+    private long belowRecheckWindow(long id) {
+        return Math.max(0, id - properties.getIdRecheckWindow());
+    }
+
+    private long[] fetchIdsAfter(long after) {
+        LongStream.Builder ids = LongStream.builder();
+        long cursor = after;
+        while (true) {
+            long[] page = fetchPage(cursor);
+            for (long id : page) {
+                ids.add(id);
+            }
+            if (page.length < properties.getPageSize()) {
+                return ids.build().toArray();
+            }
+            cursor = page[page.length - 1];
+        }
+    }
+
+    private long[] fetchPage(long after) {
+        ResponseEntity<byte[]> response = userClient.getUserIds(after, properties.getPageSize()).join();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("server responded with status " + response.getStatusCodeValue());
+        }
+        if (response.getBody() == null) {
+            return new long[0];
+        }
+        try {
+            return objectMapper.readValue(response.getBody(), long[].class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long filterSize() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.filter.sizeInBytes();
+    }
+
+    @RequiredArgsConstructor
+    private static class Snapshot {
+        private final BloomFilter filter;
+        private final long confirmedUpTo;
+        private final long seenUpTo;
+    }
+}
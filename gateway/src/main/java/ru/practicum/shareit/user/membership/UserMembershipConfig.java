@@ -0,0 +1,35 @@
+package ru.practicum.shareit.user.membership;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.practicum.shareit.user.controller.UserClient;
+
+@Configuration
+@EnableConfigurationProperties(UserMembershipProperties.class)
+public class UserMembershipConfig {
+
+    @Bean
+    public UserMembership userMembership(UserClient userClient,
+                                         ObjectMapper objectMapper,
+                                         UserMembershipProperties properties,
+                                         MeterRegistry meterRegistry) {
+        return new UserMembership(userClient, objectMapper, properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.gateway.user-membership.enabled", havingValue = "true",
+            matchIfMissing = true)
+    public FilterRegistrationBean<UnknownUserFilter> unknownUserFilterRegistration(UserMembership userMembership,
+                                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<UnknownUserFilter> registration =
+                new FilterRegistrationBean<>(new UnknownUserFilter(userMembership, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
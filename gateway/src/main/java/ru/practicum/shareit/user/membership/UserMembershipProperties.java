@@ -0,0 +1,21 @@
+package ru.practicum.shareit.user.membership;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.gateway.user-membership")
+public class UserMembershipProperties {
+    private boolean enabled = true;
+    private long expectedUsers = 1_000_000;
+    private double falsePositiveProbability = 0.01;
+    private long idHeadroom = 10_000;
+    // должно покрывать id, выданные, но ещё не закоммиченные: не меньше числа экземпляров сервера,
+    // умноженного на размер блока последовательности (50), с запасом на долгие транзакции
+    private long idRecheckWindow = 1_000;
+    private int pageSize = 10_000;
+    private long refreshIntervalMs = 5_000;
+    private long rebuildIntervalMs = 600_000;
+}
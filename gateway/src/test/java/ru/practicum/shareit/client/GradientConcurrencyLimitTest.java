@@ -0,0 +1,109 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimitTest {
+    private static final int INITIAL_LIMIT = 20;
+    private static final int MIN_LIMIT = 4;
+    private static final int MAX_LIMIT = 200;
+
+    private GradientConcurrencyLimit limit;
+
+    @BeforeEach
+    void setUp() {
+        ServerClientProperties.ConcurrencyLimit config = new ServerClientProperties.ConcurrencyLimit();
+        config.setInitialLimit(INITIAL_LIMIT);
+        config.setMinLimit(MIN_LIMIT);
+        config.setMaxLimit(MAX_LIMIT);
+        config.setRttTolerance(2.0);
+        config.setSmoothing(0.2);
+        limit = new GradientConcurrencyLimit(config);
+    }
+
+    @Test
+    void startsAtInitialLimit() {
+        assertThat(limit.getLimit()).isEqualTo(INITIAL_LIMIT);
+    }
+
+    @Test
+    void dropBacksOffDownToMinLimit() {
+        limit.onSample(millis(10), INITIAL_LIMIT, true);
+        assertThat(limit.getLimit()).isEqualTo(18);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(millis(10), INITIAL_LIMIT, true);
+        }
+        assertThat(limit.getLimit()).isEqualTo(MIN_LIMIT);
+    }
+
+    @Test
+    void samplesWithoutLoadDoNotMoveLimit() {
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(millis(i % 2 == 0 ? 10 : 500), INITIAL_LIMIT / 2 - 1, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(INITIAL_LIMIT);
+    }
+
+    @Test
+    void growsUpToMaxLimitWhileLatencyStaysFlat() {
+        loaded(10, 1_000);
+
+        assertThat(limit.getLimit()).isEqualTo(MAX_LIMIT);
+    }
+
+    @Test
+    void latencyWithinToleranceDoesNotShrinkLimit() {
+        loaded(10, 20);
+        int before = limit.getLimit();
+
+        loaded(19, 50);
+
+        assertThat(limit.getLimit()).isGreaterThanOrEqualTo(before);
+    }
+
+    @Test
+    void queueingShrinksLimitButNotBelowMinLimit() {
+        loaded(10, 20);
+        int before = limit.getLimit();
+
+        loaded(100, 300);
+
+        assertThat(limit.getLimit()).isLessThan(before).isGreaterThanOrEqualTo(MIN_LIMIT);
+    }
+
+    @Test
+    void baselineFollowsServerAfterTwoMinRttWindows() {
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(millis(10), 0, false);
+        }
+        for (int i = 0; i < 300; i++) {
+            limit.onSample(millis(50), 0, false);
+        }
+        int beforeShift = limit.getLimit();
+        loaded(50, 10);
+        assertThat(limit.getLimit()).isLessThan(beforeShift);
+
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(millis(50), 0, false);
+        }
+        int afterShift = limit.getLimit();
+        loaded(50, 10);
+        assertThat(limit.getLimit()).isGreaterThan(afterShift);
+    }
+
+    private void loaded(long rttMillis, int samples) {
+        for (int i = 0; i < samples; i++) {
+            limit.onSample(millis(rttMillis), limit.getLimit(), false);
+        }
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientServerTransportTest {
+    private static final URI ITEM = URI.create("http://server/items/1");
+    private static final URI OTHER_ITEM = URI.create("http://server/items/2");
+    private static final URI USERS = URI.create("http://server/users");
+
+    private final Queue<CompletableFuture<ResponseEntity<byte[]>>> calls = new ArrayDeque<>();
+    private SimpleMeterRegistry meterRegistry;
+    private ServerClientProperties properties;
+    private int delegateCalls;
+    private RuntimeException delegateFailure;
+    private ResilientServerTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ServerClientProperties();
+        properties.getBulkhead().setMaxConcurrentCalls(2);
+        properties.getCircuitBreaker().setSlidingWindowSize(2);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(2);
+        properties.getCircuitBreaker().setFailureRateThreshold(50);
+        properties.getCircuitBreaker().setPermittedCallsInHalfOpenState(1);
+        ServerTransport delegate = (method, uri, headers, body) -> {
+            delegateCalls++;
+            if (delegateFailure != null) {
+                throw delegateFailure;
+            }
+            CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        };
+        transport = new ResilientServerTransport(delegate, properties, meterRegistry);
+    }
+
+    @Test
+    void bulkheadRejectsCallsOverLimitPerRoute() {
+        get(ITEM);
+        get(OTHER_ITEM);
+
+        assertRejected(get(ITEM), "Too many concurrent requests to GET /items/{id}", 1);
+        assertThat(delegateCalls).isEqualTo(2);
+        assertThat(rejected("GET /items/{id}", "bulkhead-full")).isEqualTo(1);
+        // у другого маршрута свой bulkhead
+        assertThat(get(USERS)).isNotDone();
+
+        calls.remove().complete(ResponseEntity.ok().build());
+        assertThat(get(ITEM)).isNotDone();
+        assertThat(delegateCalls).isEqualTo(4);
+    }
+
+    @Test
+    void synchronousDelegateExceptionReleasesPermitAndCountsAsFailure() {
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        delegateFailure = new IllegalStateException("boom");
+
+        assertThatThrownBy(() -> get(ITEM)).isSameAs(delegateFailure);
+        delegateFailure = null;
+        CompletableFuture<ResponseEntity<byte[]>> next = get(ITEM);
+
+        assertThat(next).isNotDone();
+        assertThat(delegateCalls).isEqualTo(2);
+        calls.remove().complete(ResponseEntity.ok().build());
+        // два вызова в окне, один из них отказ: 50% открывает circuit breaker
+        assertThat(meterRegistry.get("shareit.gateway.upstream.circuit.state")
+                .tag("route", "GET /items/{id}").gauge().value())
+                .isEqualTo(RouteCircuitBreaker.State.OPEN.ordinal());
+    }
+
+    @Test
+    void openCircuitRejectsWithoutCallingServer() {
+        get(ITEM);
+        get(ITEM);
+        calls.remove().complete(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        calls.remove().completeExceptionally(new IllegalStateException("connection reset"));
+
+        assertRejected(get(ITEM), "Server is unavailable for GET /items/{id}", 10);
+        assertThat(delegateCalls).isEqualTo(2);
+        assertThat(rejected("GET /items/{id}", "circuit-open")).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.gateway.upstream.bulkhead.in-use")
+                .tag("route", "GET /items/{id}").gauge().value()).isZero();
+    }
+
+    @Test
+    void halfOpenProbeClosesOrReopensCircuit() {
+        properties.getCircuitBreaker().setOpenDuration(Duration.ZERO);
+        openCircuit();
+
+        CompletableFuture<ResponseEntity<byte[]>> probe = get(ITEM);
+        assertThat(probe).isNotDone();
+        assertRejected(get(ITEM), "Server is unavailable for GET /items/{id}", 1);
+        calls.remove().complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        assertThat(circuitState()).isEqualTo(RouteCircuitBreaker.State.OPEN.ordinal());
+
+        get(ITEM);
+        calls.remove().complete(ResponseEntity.ok().build());
+        assertThat(circuitState()).isEqualTo(RouteCircuitBreaker.State.CLOSED.ordinal());
+    }
+
+    private void openCircuit() {
+        get(ITEM);
+        get(ITEM);
+        calls.remove().complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        calls.remove().complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        assertThat(circuitState()).isEqualTo(RouteCircuitBreaker.State.OPEN.ordinal());
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> get(URI uri) {
+        return transport.exchange(HttpMethod.GET, uri, new HttpHeaders(), null);
+    }
+
+    private double circuitState() {
+        return meterRegistry.get("shareit.gateway.upstream.circuit.state")
+                .tag("route", "GET /items/{id}").gauge().value();
+    }
+
+    private double rejected(String route, String reason) {
+        return meterRegistry.get("shareit.gateway.upstream.rejected")
+                .tag("route", route).tag("reason", reason).counter().count();
+    }
+
+    private static void assertRejected(CompletableFuture<ResponseEntity<byte[]>> call,
+                                       String message, long retryAfterSeconds) {
+        assertThatThrownBy(call::join)
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .isInstanceOfSatisfying(ServerUnavailableException.class, e -> {
+                    assertThat(e.getMessage()).isEqualTo(message);
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(retryAfterSeconds);
+                });
+    }
+}
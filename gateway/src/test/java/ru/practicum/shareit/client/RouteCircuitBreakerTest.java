@@ -0,0 +1,122 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteCircuitBreakerTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long OPEN_DURATION = 10 * SECOND;
+
+    private RouteCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        ServerClientProperties.CircuitBreaker config = new ServerClientProperties.CircuitBreaker();
+        config.setSlidingWindowSize(4);
+        config.setMinimumNumberOfCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setOpenDuration(Duration.ofNanos(OPEN_DURATION));
+        config.setPermittedCallsInHalfOpenState(2);
+        circuitBreaker = new RouteCircuitBreaker("GET /items/{id}", config);
+    }
+
+    @Test
+    void staysClosedUntilMinimumNumberOfCalls() {
+        record(true, true, true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire(0)).isNotEqualTo(RouteCircuitBreaker.REJECTED);
+    }
+
+    @Test
+    void opensAtFailureRateThreshold() {
+        record(false, false, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.CLOSED);
+
+        record(true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire(OPEN_DURATION - 1)).isEqualTo(RouteCircuitBreaker.REJECTED);
+        assertThat(circuitBreaker.retryAfterSeconds(0)).isEqualTo(10);
+        assertThat(circuitBreaker.retryAfterSeconds(OPEN_DURATION - SECOND / 2)).isEqualTo(1);
+    }
+
+    @Test
+    void oldFailuresSlideOutOfWindow() {
+        // за всё время 3 отказа из 9, но в окне из 4 последних вызовов их половина
+        record(true, false, false, false, false, false, false, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.CLOSED);
+
+        record(true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenAdmitsLimitedProbesAndClosesAfterTheySucceed() {
+        open();
+
+        long firstProbe = circuitBreaker.tryAcquire(OPEN_DURATION);
+        long secondProbe = circuitBreaker.tryAcquire(OPEN_DURATION);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.HALF_OPEN);
+        assertThat(firstProbe).isNotEqualTo(RouteCircuitBreaker.REJECTED);
+        assertThat(secondProbe).isNotEqualTo(RouteCircuitBreaker.REJECTED);
+        assertThat(circuitBreaker.tryAcquire(OPEN_DURATION)).isEqualTo(RouteCircuitBreaker.REJECTED);
+
+        circuitBreaker.onResult(firstProbe, false, OPEN_DURATION);
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.HALF_OPEN);
+        circuitBreaker.onResult(secondProbe, false, OPEN_DURATION);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.CLOSED);
+        // после закрытия окно считается заново
+        record(true, true, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedProbeReopensForFullOpenDuration() {
+        open();
+        long probe = circuitBreaker.tryAcquire(OPEN_DURATION);
+
+        circuitBreaker.onResult(probe, true, OPEN_DURATION + SECOND);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire(2 * OPEN_DURATION)).isEqualTo(RouteCircuitBreaker.REJECTED);
+        assertThat(circuitBreaker.tryAcquire(2 * OPEN_DURATION + SECOND))
+                .isNotEqualTo(RouteCircuitBreaker.REJECTED);
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void resultsOfCallsStartedBeforeTransitionAreIgnored() {
+        long slowCall = circuitBreaker.tryAcquire(0);
+        open();
+        long probe = circuitBreaker.tryAcquire(OPEN_DURATION);
+
+        circuitBreaker.onResult(slowCall, true, OPEN_DURATION);
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.HALF_OPEN);
+        circuitBreaker.onResult(slowCall, false, OPEN_DURATION);
+        circuitBreaker.onResult(slowCall, false, OPEN_DURATION);
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.HALF_OPEN);
+
+        circuitBreaker.onResult(probe, false, OPEN_DURATION);
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.HALF_OPEN);
+    }
+
+    private void open() {
+        record(true, true, true, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(RouteCircuitBreaker.State.OPEN);
+    }
+
+    private void record(boolean... failures) {
+        for (boolean failure : failures) {
+            circuitBreaker.onResult(circuitBreaker.tryAcquire(0), failure, 0);
+        }
+    }
+}
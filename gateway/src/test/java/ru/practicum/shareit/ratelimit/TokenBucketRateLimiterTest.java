@@ -0,0 +1,157 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketRateLimiterTest {
+    private static final String KEY = "1:READS";
+    private static final long START = TimeUnit.SECONDS.toNanos(1_000);
+
+    @Test
+    void allowsBurstThenAsksToWaitOneEmissionInterval() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 3);
+
+        assertThat(limiter.tryAcquire(KEY, START)).isZero();
+        assertThat(limiter.tryAcquire(KEY, START)).isZero();
+        assertThat(limiter.tryAcquire(KEY, START)).isZero();
+        assertThat(limiter.tryAcquire(KEY, START)).isEqualTo(millis(100));
+    }
+
+    @Test
+    void waitShrinksAsTimePasses() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1);
+
+        assertThat(limiter.tryAcquire(KEY, START)).isZero();
+        assertThat(limiter.tryAcquire(KEY, START + millis(30))).isEqualTo(millis(70));
+        assertThat(limiter.tryAcquire(KEY, START + millis(100))).isZero();
+    }
+
+    @Test
+    void rejectedRequestDoesNotConsumeToken() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1);
+
+        assertThat(limiter.tryAcquire(KEY, START)).isZero();
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(KEY, START + millis(50))).isEqualTo(millis(50));
+        }
+        assertThat(limiter.tryAcquire(KEY, START + millis(100))).isZero();
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionIntervalUpToBurst() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 3);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(KEY, START);
+        }
+
+        assertThat(limiter.tryAcquire(KEY, START + millis(100))).isZero();
+        assertThat(limiter.tryAcquire(KEY, START + millis(100))).isPositive();
+
+        long idle = START + TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(KEY, idle)).isZero();
+        }
+        assertThat(limiter.tryAcquire(KEY, idle)).isEqualTo(millis(100));
+    }
+
+    @Test
+    void supportsRatesBelowOnePerSecond() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0.1, 2);
+
+        assertThat(limiter.tryAcquire(KEY, START)).isZero();
+        assertThat(limiter.tryAcquire(KEY, START)).isZero();
+        assertThat(limiter.tryAcquire(KEY, START)).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1);
+
+        assertThat(limiter.tryAcquire("1:READS", START)).isZero();
+        assertThat(limiter.tryAcquire("2:READS", START)).isZero();
+        assertThat(limiter.tryAcquire("1:READS", START)).isPositive();
+    }
+
+    @Test
+    void evictIdleRemovesOnlyFullBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 3);
+        limiter.tryAcquire("busy", START);
+        limiter.tryAcquire("busy", START);
+        limiter.tryAcquire("idle", START);
+
+        limiter.evictIdle(START + millis(100));
+
+        assertThat(limiter.size()).isEqualTo(1);
+        limiter.evictIdle(START + millis(200));
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void evictionDoesNotChangeDecisions() {
+        TokenBucketRateLimiter evicting = new TokenBucketRateLimiter(10, 3);
+        TokenBucketRateLimiter keeping = new TokenBucketRateLimiter(10, 3);
+        evicting.tryAcquire(KEY, START);
+        keeping.tryAcquire(KEY, START);
+
+        long now = START + millis(150);
+        evicting.evictIdle(now);
+
+        assertThat(evicting.size()).isZero();
+        for (int i = 0; i < 4; i++) {
+            assertThat(evicting.tryAcquire(KEY, now)).isEqualTo(keeping.tryAcquire(KEY, now));
+        }
+    }
+
+    @Test
+    void concurrentCallersShareOneBurst() throws Exception {
+        int threads = 16;
+        int burst = 5;
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, burst);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    go.await();
+                    int acquired = 0;
+                    for (int j = 0; j < 100; j++) {
+                        if (limiter.tryAcquire(KEY, START) == 0) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            go.countDown();
+            int acquired = 0;
+            for (Future<Integer> result : results) {
+                acquired += result.get(10, TimeUnit.SECONDS);
+            }
+
+            assertThat(acquired).isEqualTo(burst);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsIllegalLimits() {
+        assertThatThrownBy(() -> new TokenBucketRateLimiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketRateLimiter(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.user.membership;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void containsEveryInsertedValue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(filter.mightContain(id)).as("id %d", id).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredProbability() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        int falsePositives = 0;
+        for (long id = 10_001; id <= 110_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertThat(filter.mightContain(0)).isFalse();
+        assertThat(filter.mightContain(1)).isFalse();
+        assertThat(filter.mightContain(Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void sizeFollowsExpectedInsertionsAndProbability() {
+        // 1000 * ln(100) / ln(2)^2 = 9586 бит, округление до 150 слов по 64 бита
+        assertThat(new BloomFilter(1_000, 0.01).sizeInBytes()).isEqualTo(1_200);
+        assertThat(new BloomFilter(1_000, 0.001).sizeInBytes())
+                .isGreaterThan(new BloomFilter(1_000, 0.01).sizeInBytes());
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(1_000, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(1_000, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
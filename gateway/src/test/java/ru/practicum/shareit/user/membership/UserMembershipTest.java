@@ -0,0 +1,185 @@
+package ru.practicum.shareit.user.membership;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.user.controller.UserClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserMembershipTest {
+    private static final int PAGE_SIZE = 7;
+    private static final long HEADROOM = 100;
+    private static final long RECHECK_WINDOW = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NavigableSet<Long> serverIds = new ConcurrentSkipListSet<>();
+    private UserClient userClient;
+    private UserMembershipProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private UserMembership membership;
+
+    @BeforeEach
+    void setUp() {
+        // на сервере id 1..40 без 7 и отдельно 50
+        LongStream.rangeClosed(1, 40).filter(id -> id != 7).forEach(serverIds::add);
+        serverIds.add(50L);
+        userClient = mock(UserClient.class);
+        when(userClient.getUserIds(anyLong(), anyInt()))
+                .thenAnswer(invocation -> idsPage(invocation.getArgument(0), invocation.getArgument(1)));
+        properties = new UserMembershipProperties();
+        properties.setExpectedUsers(1_000);
+        properties.setFalsePositiveProbability(0.000_001);
+        properties.setIdHeadroom(HEADROOM);
+        properties.setIdRecheckWindow(RECHECK_WINDOW);
+        properties.setPageSize(PAGE_SIZE);
+        meterRegistry = new SimpleMeterRegistry();
+        membership = new UserMembership(userClient, objectMapper, properties, meterRegistry);
+    }
+
+    @Test
+    void nothingIsKnownAbsentBeforeFirstRefresh() {
+        assertThat(membership.isKnownAbsent(7)).isFalse();
+        assertThat(membership.isKnownAbsent(1_000_000)).isFalse();
+    }
+
+    @Test
+    void firstRebuildOnlyRulesOutIdsBeyondHeadroom() {
+        membership.refresh();
+
+        // до первого обновления неизвестно, какие id ещё не закоммичены
+        assertThat(membership.isKnownAbsent(7)).isFalse();
+        assertThat(membership.isKnownAbsent(50 + HEADROOM)).isFalse();
+        assertThat(membership.isKnownAbsent(50 + HEADROOM + 1)).isTrue();
+    }
+
+    @Test
+    void updateConfirmsAbsenceBelowRecheckWindow() {
+        membership.refresh();
+        membership.refresh();
+
+        assertThat(membership.isKnownAbsent(5)).isFalse();
+        assertThat(membership.isKnownAbsent(7)).isTrue();
+        // окно 40..50 и запас над максимумом проверяет сервер
+        assertThat(membership.isKnownAbsent(45)).isFalse();
+        assertThat(membership.isKnownAbsent(50 + HEADROOM)).isFalse();
+        assertThat(membership.isKnownAbsent(50 + HEADROOM + 1)).isTrue();
+    }
+
+    @Test
+    void updateRereadsRecheckWindowToCatchLateCommits() {
+        membership.refresh();
+        membership.refresh();
+        serverIds.add(45L);
+
+        membership.refresh();
+
+        verify(userClient).getUserIds(50 - RECHECK_WINDOW, PAGE_SIZE);
+        assertThat(membership.isKnownAbsent(45)).isFalse();
+    }
+
+    @Test
+    void newIdsAboveMaximumMoveHeadroom() {
+        membership.refresh();
+        membership.refresh();
+        serverIds.add(200L);
+
+        membership.refresh();
+
+        assertThat(membership.isKnownAbsent(200 + HEADROOM)).isFalse();
+        assertThat(membership.isKnownAbsent(200 + HEADROOM + 1)).isTrue();
+        // окно перепроверки строится от максимума прошлой выборки, поэтому 60 подтверждается только следующим обновлением
+        assertThat(membership.isKnownAbsent(60)).isFalse();
+
+        membership.refresh();
+
+        assertThat(membership.isKnownAbsent(60)).isTrue();
+        assertThat(membership.isKnownAbsent(195)).isFalse();
+    }
+
+    @Test
+    void addedUserIsPutIntoFilter() throws IOException {
+        membership.refresh();
+        membership.refresh();
+
+        membership.onUserAdded(ResponseEntity.ok(objectMapper.writeValueAsBytes(Map.of("id", 7))));
+
+        assertThat(membership.isKnownAbsent(7)).isFalse();
+    }
+
+    @Test
+    void deletedUserIsKnownAbsentOnlyAfterSuccessfulDelete() {
+        membership.onUserDeleted(3, ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        assertThat(membership.isKnownAbsent(3)).isFalse();
+
+        membership.onUserDeleted(3, ResponseEntity.noContent().build());
+        assertThat(membership.isKnownAbsent(3)).isTrue();
+    }
+
+    @Test
+    void rebuildForgetsDeletionsCoveredByNewScan() {
+        membership.refresh();
+        membership.onUserDeleted(3, ResponseEntity.ok().build());
+        serverIds.remove(3L);
+        properties.setRebuildIntervalMs(0);
+
+        membership.refresh();
+
+        assertThat(meterRegistry.get("shareit.gateway.user-membership.deleted").gauge().value()).isZero();
+        assertThat(membership.isKnownAbsent(3)).isTrue();
+    }
+
+    @Test
+    void failedRefreshKeepsPreviousSnapshot() {
+        membership.refresh();
+        membership.refresh();
+        when(userClient.getUserIds(anyLong(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_GATEWAY).build()));
+
+        membership.refresh();
+
+        assertThat(meterRegistry.get("shareit.gateway.user-membership.refresh.failures").counter().count())
+                .isEqualTo(1);
+        assertThat(membership.isKnownAbsent(7)).isTrue();
+        assertThat(membership.isKnownAbsent(5)).isFalse();
+    }
+
+    @Test
+    void disabledMembershipDoesNotCallServer() {
+        properties.setEnabled(false);
+
+        membership.refresh();
+
+        verifyNoInteractions(userClient);
+        assertThat(membership.isKnownAbsent(7)).isFalse();
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> idsPage(long after, int size) {
+        long[] page = serverIds.tailSet(after, false).stream()
+                .limit(size)
+                .mapToLong(Long::longValue)
+                .toArray();
+        try {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(objectMapper.writeValueAsBytes(page)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
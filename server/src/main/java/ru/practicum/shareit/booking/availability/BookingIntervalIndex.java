@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.availability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingSavedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Индекс узнаёт только о коммитах своего экземпляра сервера, поэтому точен лишь при одном экземпляре.
+// При нескольких экземплярах addBooking может принять заявку, пересекающую подтверждённое на другом
+// экземпляре бронирование: заявка останется WAITING, а её подтверждение отклонит база (ограничение
+// ex_bookings_item_period или проверка в режиме item-lock). Если такие заявки недопустимы, сервер
+// должен работать в одном экземпляре
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    public static final Set<Status> ACTIVE_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+    private static final long ESTIMATED_INTERVAL_BYTES = 160;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, BookingIntervals> items;
+    private final Counter hits;
+    private final Counter misses;
+    private long changesOfUncachedItems;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.booking-intervals.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.items = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BookingIntervals> eldest) {
+                return size() > maxItems;
+            }
+        };
+        this.hits = meterRegistry.counter("shareit.booking.intervals.requests", "result", "hit");
+        this.misses = meterRegistry.counter("shareit.booking.intervals.requests", "result", "miss");
+        Gauge.builder("shareit.booking.intervals.items", this, BookingIntervalIndex::itemCount)
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.intervals.memory", this, index -> index.intervalCount() * ESTIMATED_INTERVAL_BYTES)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isBooked(long itemId, LocalDateTime start, LocalDateTime end, Set<Status> statuses) {
+        BookingIntervals intervals = getIntervals(itemId);
+        intervals.pruneEndedBefore(LocalDateTime.now());
+        return intervals.overlaps(start, end, statuses);
+    }
+
+    @TransactionalEventListener
+    public void onBookingSaved(BookingSavedEvent event) {
+        BookingIntervals intervals;
+        synchronized (items) {
+            intervals = items.get(event.getItemId());
+            if (intervals == null) {
+                changesOfUncachedItems++;
+                return;
+            }
+        }
+        if (ACTIVE_STATUSES.contains(event.getStatus())) {
+            intervals.put(event.getBookingId(), event.getStart(), event.getEnd(), event.getStatus());
+        } else {
+            intervals.remove(event.getBookingId());
+        }
+    }
+
+    private BookingIntervals getIntervals(long itemId) {
+        long changesBeforeLoad;
+        synchronized (items) {
+            BookingIntervals intervals = items.get(itemId);
+            if (intervals != null) {
+                hits.increment();
+                return intervals;
+            }
+            changesBeforeLoad = changesOfUncachedItems;
+        }
+        misses.increment();
+        BookingIntervals loaded = load(itemId);
+        synchronized (items) {
+            // бронирования, сохранённые во время загрузки, могли не попасть в выборку
+            if (changesBeforeLoad == changesOfUncachedItems) {
+                BookingIntervals cached = items.putIfAbsent(itemId, loaded);
+                return cached == null ? loaded : cached;
+            }
+        }
+        log.debug("Интервалы бронирований вещи id={} не закэшированы: изменения во время загрузки", itemId);
+        return loaded;
+    }
+
+    private BookingIntervals load(long itemId) {
+        List<Booking> bookings = bookingRepository.findAllByItem_IdAndEndAfterAndStatusIn(itemId,
+                LocalDateTime.now(), ACTIVE_STATUSES);
+        BookingIntervals intervals = new BookingIntervals();
+        bookings.forEach(booking ->
+                intervals.put(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus()));
+        return intervals;
+    }
+
+    private int itemCount() {
+        synchronized (items) {
+            return items.size();
+        }
+    }
+
+    private long intervalCount() {
+        synchronized (items) {
+            return items.values().stream().mapToLong(BookingIntervals::size).sum();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class BookingIntervals {
+    private static final Comparator<Interval> BY_START =
+            Comparator.comparing(Interval::getStart).thenComparingLong(Interval::getBookingId);
+
+    private final NavigableSet<Interval> intervals = new TreeSet<>(BY_START);
+    private final Map<Long, Interval> byBookingId = new HashMap<>();
+    private Duration maxLength = Duration.ZERO;
+
+    public synchronized void put(long bookingId, LocalDateTime start, LocalDateTime end, Status status) {
+        remove(bookingId);
+        Interval interval = new Interval(bookingId, start, end, status);
+        intervals.add(interval);
+        byBookingId.put(bookingId, interval);
+        Duration length = Duration.between(start, end);
+        if (length.compareTo(maxLength) > 0) {
+            maxLength = length;
+        }
+    }
+
+    public synchronized void remove(long bookingId) {
+        Interval interval = byBookingId.remove(bookingId);
+        if (interval != null) {
+            intervals.remove(interval);
+        }
+    }
+
+    public synchronized boolean overlaps(LocalDateTime start, LocalDateTime end, Set<Status> statuses) {
+        // интервалы, начавшиеся раньше start - maxLength, закончились до start
+        Interval from = new Interval(Long.MIN_VALUE, start.minus(maxLength), start, null);
+        Interval to = new Interval(Long.MIN_VALUE, end, end, null);
+        for (Interval interval : intervals.subSet(from, true, to, false)) {
+            if (interval.getEnd().isAfter(start) && statuses.contains(interval.getStatus())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized void pruneEndedBefore(LocalDateTime date) {
+        Iterator<Interval> iterator = intervals.headSet(new Interval(Long.MIN_VALUE, date, date, null)).iterator();
+        while (iterator.hasNext()) {
+            Interval interval = iterator.next();
+            if (!interval.getEnd().isAfter(date)) {
+                iterator.remove();
+                byBookingId.remove(interval.getBookingId());
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return intervals.size();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class Interval {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Status status;
+    }
+}
@@ -1,15 +1,21 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.utils.NdjsonWriter;
+import ru.practicum.shareit.utils.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -18,6 +24,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
     private static final String HEADER = "X-Sharer-User-Id";
     private static final String DEFAULT_SIZE = "25";
     private static final String DEFAULT_FROM = "0";
@@ -47,28 +54,46 @@ public class BookingController {
     }
 
     @GetMapping("")
-    List<BookingOutputDto> getAllUsersBooking(@RequestHeader(value = HEADER) long bookerId,
-                                              @RequestParam(value = "state",
-                                                      defaultValue = "ALL") State stateParam,
-                                              @RequestParam(value = "from",
-                                                      defaultValue = DEFAULT_FROM) @Positive int from,
-                                              @RequestParam(value = "size",
-                                                      defaultValue = DEFAULT_SIZE) @Positive int size) {
-        log.info("получен GET запрос на просмотр всех бронирований для bookerId={}, state={}, from={}, size={}",
-                bookerId, stateParam, from, size);
-        return bookingService.getAllUsersBookings(bookerId, stateParam, from, size);
+    ResponseEntity<List<BookingOutputDto>> getAllUsersBooking(@RequestHeader(value = HEADER) long bookerId,
+                                                              @RequestParam(value = "state",
+                                                                      defaultValue = "ALL") State stateParam,
+                                                              @RequestParam(value = "from",
+                                                                      defaultValue = DEFAULT_FROM) @Positive int from,
+                                                              @RequestParam(value = "size",
+                                                                      defaultValue = DEFAULT_SIZE) @Positive int size,
+                                                              @RequestParam(value = "cursor",
+                                                                      required = false) String cursor) {
+        log.info("получен GET запрос на просмотр всех бронирований для bookerId={}, state={}, from={}, size={}, " +
+                "cursor={}", bookerId, stateParam, from, size, cursor);
+        List<BookingOutputDto> bookings =
+                bookingService.getAllUsersBookings(bookerId, stateParam, from, size, PageCursor.decode(cursor));
+        return PageCursor.toResponse(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    List<BookingOutputDto> getAllOwnersBooking(@RequestHeader(value = HEADER) long ownerId,
-                                               @RequestParam(value = "state",
-                                                       defaultValue = "ALL") State stateParam,
-                                               @RequestParam(value = "from",
-                                                       defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
-                                               @RequestParam(value = "size",
-                                                       defaultValue = DEFAULT_SIZE) @Positive int size) {
-        log.info("получен GET запрос на просмотр всех бронирований для owner={}, state={}, from={}, size={}",
-                ownerId, stateParam, from, size);
-        return bookingService.getAllOwnersBookings(ownerId, stateParam, from, size);
+    ResponseEntity<List<BookingOutputDto>> getAllOwnersBooking(@RequestHeader(value = HEADER) long ownerId,
+                                                               @RequestParam(value = "state",
+                                                                       defaultValue = "ALL") State stateParam,
+                                                               @RequestParam(value = "from",
+                                                                       defaultValue = DEFAULT_FROM)
+                                                               @PositiveOrZero int from,
+                                                               @RequestParam(value = "size",
+                                                                       defaultValue = DEFAULT_SIZE) @Positive int size,
+                                                               @RequestParam(value = "cursor",
+                                                                       required = false) String cursor) {
+        log.info("получен GET запрос на просмотр всех бронирований для owner={}, state={}, from={}, size={}, " +
+                "cursor={}", ownerId, stateParam, from, size, cursor);
+        List<BookingOutputDto> bookings =
+                bookingService.getAllOwnersBookings(ownerId, stateParam, from, size, PageCursor.decode(cursor));
+        return PageCursor.toResponse(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnersBookings(@RequestHeader(value = HEADER) long ownerId,
+                                     HttpServletResponse response) throws IOException {
+        log.info("получен GET запрос на выгрузку всех бронирований для owner={}", ownerId);
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response)) {
+            bookingService.exportOwnersBookings(ownerId, writer);
+        }
     }
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingSavedEvent {
+    private final long bookingId;
+    private final long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Status status;
+
+    public static BookingSavedEvent of(Booking booking) {
+        return new BookingSavedEvent(booking.getId(),
+                booking.getItem().getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus());
+    }
+}
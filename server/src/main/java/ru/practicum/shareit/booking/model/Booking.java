@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.model;
 
 import lombok.*;
+import org.hibernate.Hibernate;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -11,12 +12,12 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @Table(name = "bookings")
-@EqualsAndHashCode
 @AllArgsConstructor
 @NoArgsConstructor
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private long id;
     @Column(name = "start_date", nullable = false)
     private LocalDateTime start;
@@ -30,5 +31,20 @@ public class Booking {
     private User booker;
     @Enumerated(EnumType.STRING)
     private Status status = Status.WAITING;
-}
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return id != 0 && id == ((Booking) o).getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
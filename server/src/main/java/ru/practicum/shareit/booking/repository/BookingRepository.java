@@ -3,40 +3,66 @@ package ru.practicum.shareit.booking.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.datasource.StreamingQueries;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBooker_Id(Long bookerId, Pageable pageable);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    List<Booking> findAllByBooker_IdAndEndBefore(Long bookerId, LocalDateTime now, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    // fetch join прямо в запросе: с подсказкой entity graph Hibernate разбирает HQL при каждом вызове
+    String SELECT_WITH_ITEM_AND_BOOKER = "SELECT b FROM Booking b " +
+            "JOIN FETCH b.item i " +
+            "LEFT JOIN FETCH i.request " +
+            "JOIN FETCH b.booker ";
 
-    List<Booking> findAllByBooker_IdAndStartAfter(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.booker.id = :bookerId")
+    List<Booking> findAllByBooker_Id(@Param("bookerId") Long bookerId, Pageable pageable);
 
-    List<Booking> findAllByBooker_IdAndStartBeforeAndEndAfter(Long bookerId,
-                                                              LocalDateTime now1,
-                                                              LocalDateTime now2,
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.booker.id = :bookerId AND b.end < :now")
+    List<Booking> findAllByBooker_IdAndEndBefore(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.booker.id = :bookerId AND b.start > :now")
+    List<Booking> findAllByBooker_IdAndStartAfter(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.booker.id = :bookerId AND b.start < :now1 AND b.end > :now2")
+    List<Booking> findAllByBooker_IdAndStartBeforeAndEndAfter(@Param("bookerId") Long bookerId,
+                                                              @Param("now1") LocalDateTime now1,
+                                                              @Param("now2") LocalDateTime now2,
                                                               Pageable pageable);
 
-    List<Booking> findAllByBooker_IdAndStatus(Long bookerId, Status status, Pageable pageable);
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.booker.id = :bookerId AND b.status = :status")
+    List<Booking> findAllByBooker_IdAndStatus(@Param("bookerId") Long bookerId, @Param("status") Status status, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerId(Long ownerId, Pageable pageable);
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE i.owner.id = :ownerId")
+    List<Booking> findAllByItemOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime now, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + StreamingQueries.FETCH_SIZE))
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE i.owner.id = :ownerId ORDER BY b.id")
+    Stream<Booking> streamAllByItemOwnerId(@Param("ownerId") long ownerId);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE i.owner.id = :ownerId AND b.end < :now")
+    List<Booking> findAllByItemOwnerIdAndEndBefore(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now, Pageable pageable);
 
-    List<Booking> findAllByItem_Owner_IdAndStartBeforeAndEndAfter(Long ownerId,
-                                                                  LocalDateTime now1,
-                                                                  LocalDateTime now2,
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE i.owner.id = :ownerId AND b.start > :now")
+    List<Booking> findAllByItemOwnerIdAndStartAfter(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE i.owner.id = :ownerId AND b.start < :now1 AND b.end > :now2")
+    List<Booking> findAllByItem_Owner_IdAndStartBeforeAndEndAfter(@Param("ownerId") Long ownerId,
+                                                                  @Param("now1") LocalDateTime now1,
+                                                                  @Param("now2") LocalDateTime now2,
                                                                   Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStatus(Long ownerId, Status status, Pageable pageable);
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE i.owner.id = :ownerId AND b.status = :status")
+    List<Booking> findAllByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId, @Param("status") Status status, Pageable pageable);
 
     @Query(value = "SELECT DISTINCT ON(item_id) * FROM bookings b " +
             "WHERE b.item_id IN :itemIds " +
@@ -56,10 +82,16 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                            @Param("status") String status,
                                            @Param("date") LocalDateTime date);
 
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status = ru.practicum.shareit.booking.model.Status.APPROVED " +
+            "AND b.start < :end " +
+            "AND b.end > :start")
+    List<Long> findItemIdsBookedBetween(@Param("itemIds") Collection<Long> itemIds,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end);
+
     Booking findFirstByItem_IdAndBooker_IdAndEndBefore(Long itemId, Long bookerId, LocalDateTime date);
 
-    Optional<Booking> findFirstByItem_IdAndEndAfterAndStartBeforeAndStatus(Long itemId,
-                                                                           LocalDateTime after,
-                                                                           LocalDateTime before,
-                                                                           Status status);
+    List<Booking> findAllByItem_IdAndEndAfterAndStatusIn(Long itemId, LocalDateTime date, Collection<Status> statuses);
 }
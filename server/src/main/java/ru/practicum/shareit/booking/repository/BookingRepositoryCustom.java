@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.utils.PageCursor;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    List<Booking> findAllAfter(Specification<Booking> specification, PageCursor after, int size);
+}
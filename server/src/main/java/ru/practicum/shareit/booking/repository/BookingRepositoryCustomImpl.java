@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.utils.PageCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findAllAfter(Specification<Booking> specification, PageCursor after, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        booking.fetch("item").fetch("request", JoinType.LEFT);
+        booking.fetch("booker");
+
+        LocalDateTime start = after.getPosition();
+        if (start == null) {
+            throw new IllegalArgumentException(String.format("illegal cursor: %s", after.encode()));
+        }
+        Predicate seek = cb.or(
+                cb.lessThan(booking.get("start"), start),
+                cb.and(cb.equal(booking.get("start"), start), cb.lessThan(booking.get("id"), after.getId())));
+        Predicate filter = specification.toPredicate(booking, query, cb);
+
+        query.select(booking)
+                .where(filter == null ? seek : cb.and(filter, seek))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
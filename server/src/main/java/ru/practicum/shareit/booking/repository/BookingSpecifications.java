@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.controller.State;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+public final class BookingSpecifications {
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> bookedBy(long bookerId) {
+        return (booking, query, cb) -> cb.equal(booking.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> ofItemsOwnedBy(long ownerId) {
+        return (booking, query, cb) -> cb.equal(booking.get("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> inState(State state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return (booking, query, cb) -> cb.conjunction();
+            case PAST:
+                return (booking, query, cb) -> cb.lessThan(booking.get("end"), now);
+            case FUTURE:
+                return (booking, query, cb) -> cb.greaterThan(booking.get("start"), now);
+            case CURRENT:
+                return (booking, query, cb) -> cb.and(
+                        cb.lessThan(booking.get("start"), now),
+                        cb.greaterThan(booking.get("end"), now));
+            case WAITING:
+                return (booking, query, cb) -> cb.equal(booking.get("status"), Status.WAITING);
+            case REJECTED:
+                return (booking, query, cb) -> cb.equal(booking.get("status"), Status.REJECTED);
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+    }
+}
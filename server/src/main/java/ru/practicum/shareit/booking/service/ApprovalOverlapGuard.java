@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+public interface ApprovalOverlapGuard {
+    // вызывается в транзакции подтверждения до сохранения статуса APPROVED
+    boolean overlapsApproved(Booking booking);
+}
@@ -3,7 +3,10 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.controller.State;
+import ru.practicum.shareit.utils.NdjsonWriter;
+import ru.practicum.shareit.utils.PageCursor;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface BookingService {
@@ -14,7 +17,9 @@ public interface BookingService {
 
     BookingOutputDto getBookingByIdAndBookerId(long bookingId, long userId);
 
-    List<BookingOutputDto> getAllUsersBookings(Long bookerId, State state, int from, int size);
+    List<BookingOutputDto> getAllUsersBookings(Long bookerId, State state, int from, int size, PageCursor after);
 
-    List<BookingOutputDto> getAllOwnersBookings(Long ownerId, State state, int from, int size);
+    List<BookingOutputDto> getAllOwnersBookings(Long ownerId, State state, int from, int size, PageCursor after);
+
+    void exportOwnersBookings(long ownerId, NdjsonWriter writer) throws IOException;
 }
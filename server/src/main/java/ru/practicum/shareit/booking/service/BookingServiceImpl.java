@@ -2,40 +2,64 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
 import ru.practicum.shareit.booking.controller.State;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
+import ru.practicum.shareit.booking.event.BookingSavedEvent;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
 import ru.practicum.shareit.exceptions.NotAvailableException;
 import ru.practicum.shareit.exceptions.ElementNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointersService;
+import ru.practicum.shareit.utils.NdjsonWriter;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PageRequestUtil;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
-    private final UserRepository userRepository;
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+    // совпадает с ключом курсора (start, id), по которому BookingRepository.findAllAfter продолжает выборку
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
+    private final ItemBookingPointersService itemBookingPointersService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ApprovalOverlapGuard approvalOverlapGuard;
+    private final ApplicationEventPublisher eventPublisher;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Transactional
     @Override
@@ -47,7 +71,8 @@ public class BookingServiceImpl implements BookingService {
             throw new NotAvailableException(
                     String.format("Вещь с id=%d недоступна", item.getId()));
         }
-        if (isAlreadyBooked(bookingInputDto)) {
+        // проверка по индексу в памяти: точна только при одном экземпляре сервера, см. BookingIntervalIndex
+        if (isAlreadyBooked(item.getId(), bookingInputDto.getStart(), bookingInputDto.getEnd())) {
             log.error("Вещь с id={} недоступна", item.getId());
             throw new NotAvailableException(
                     String.format("Вещь с id=%d недоступна", item.getId()));
@@ -57,9 +82,10 @@ public class BookingServiceImpl implements BookingService {
             throw new ElementNotFoundException(
                     String.format("bookerId=%d равен ownerId для вещи с id=%d", bookerId, item.getId()));
         }
-        User booker = findUserById(bookerId);
+        User booker = userExistenceCache.getReference(bookerId);
         Booking newBooking = bookingMapper.toBooking(bookingInputDto, item, booker);
         Booking addedBooking = bookingRepository.save(newBooking);
+        eventPublisher.publishEvent(BookingSavedEvent.of(addedBooking));
         log.info("было добавлено booking={}", addedBooking);
         return bookingMapper.toBookingOutputDto(addedBooking);
     }
@@ -67,7 +93,7 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Override
     public BookingOutputDto updateBooking(long bookingId, long ownerId, boolean isApproved) {
-        findUserById(ownerId);
+        userExistenceCache.require(ownerId);
         Booking booking = findBookingById(bookingId);
         if (booking.getItem().getOwner().getId() != ownerId) {
             log.error("Только владелец имеет доступ к вещи");
@@ -77,16 +103,31 @@ public class BookingServiceImpl implements BookingService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     String.format("бронирование с bookingId=%d не в статусе WAITING", bookingId));
         }
+        if (isApproved && (isAlreadyBooked(booking.getItem().getId(), booking.getStart(), booking.getEnd())
+                || approvalOverlapGuard.overlapsApproved(booking))) {
+            throw alreadyBooked(booking);
+        }
         Status newStatus = isApproved ? Status.APPROVED : Status.REJECTED;
         booking.setStatus(newStatus);
+        Booking updatedBooking;
+        try {
+            updatedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isExclusionViolation(e)) {
+                throw e;
+            }
+            throw alreadyBooked(booking);
+        }
+        itemBookingPointersService.onBookingStatusChanged(updatedBooking);
+        eventPublisher.publishEvent(BookingSavedEvent.of(updatedBooking));
 
-        return bookingMapper.toBookingOutputDto(bookingRepository.save(booking));
+        return bookingMapper.toBookingOutputDto(updatedBooking);
     }
 
     @Transactional(readOnly = true)
     @Override
     public BookingOutputDto getBookingByIdAndBookerId(long bookingId, long userId) {
-        findUserById(userId);
+        userExistenceCache.require(userId);
         Booking booking = findBookingByIdAndUserId(bookingId, userId);
         log.info("Показано бронирование booking={}, для id={}, userId={}", booking, bookingId, userId);
         return bookingMapper.toBookingOutputDto(booking);
@@ -94,83 +135,93 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<BookingOutputDto> getAllUsersBookings(Long bookerId, State state, int from, int size) {
+    public List<BookingOutputDto> getAllUsersBookings(Long bookerId, State state, int from, int size,
+                                                      PageCursor after) {
+        if (from < 0) {
+            throw new IllegalArgumentException(String.format("illegal from: %s", from));
+        }
+        userExistenceCache.require(bookerId);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> allUsersBookings = after == null
+                ? findUsersBookings(bookerId, state, from, size, now)
+                : bookingRepository.findAllAfter(
+                BookingSpecifications.bookedBy(bookerId).and(BookingSpecifications.inState(state, now)), after, size);
+        List<BookingOutputDto> allBookingsDto = bookingMapper.map(allUsersBookings);
+        log.info("Покзаны все {} бронирования для bookerId={}", allBookingsDto.size(), bookerId);
+        return allBookingsDto;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingOutputDto> getAllOwnersBookings(Long ownerId, State state, int from, int size,
+                                                       PageCursor after) {
         if (from < 0) {
             throw new IllegalArgumentException(String.format("illegal from: %s", from));
         }
-        findUserById(bookerId);
-        List<Booking> allUsersBookings = new ArrayList<>();
-        Pageable sortedByStart = PageRequestUtil.of(from, size, Sort.by(Sort.Direction.DESC, "start"));
+        userExistenceCache.require(ownerId);
         LocalDateTime now = LocalDateTime.now();
+        List<Booking> allOwnersBookings = after == null
+                ? findOwnersBookings(ownerId, state, from, size, now)
+                : bookingRepository.findAllAfter(
+                BookingSpecifications.ofItemsOwnedBy(ownerId).and(BookingSpecifications.inState(state, now)),
+                after,
+                size);
+        List<BookingOutputDto> allBookingsDto = bookingMapper.map(allOwnersBookings);
+        log.info("Показаны все {} бронирования для ownerId={}", allBookingsDto.size(), ownerId);
+        return allBookingsDto;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportOwnersBookings(long ownerId, NdjsonWriter writer) throws IOException {
+        userExistenceCache.require(ownerId);
+        long exported;
+        try (Stream<Booking> bookings = bookingRepository.streamAllByItemOwnerId(ownerId)) {
+            exported = writer.writeAll(bookings, bookingMapper::toBookingOutputDto, entityManager::clear);
+        }
+        log.info("Выгружено {} бронирований для ownerId={}", exported, ownerId);
+    }
+
+    private List<Booking> findUsersBookings(Long bookerId, State state, int from, int size, LocalDateTime now) {
+        Pageable sortedByStart = PageRequestUtil.of(from, size, NEWEST_FIRST);
         switch (state) {
             case ALL:
-                allUsersBookings = bookingRepository.findAllByBooker_Id(bookerId, sortedByStart);
-                break;
+                return bookingRepository.findAllByBooker_Id(bookerId, sortedByStart);
             case PAST:
-                allUsersBookings = bookingRepository.findAllByBooker_IdAndEndBefore(bookerId, now, sortedByStart);
-                break;
+                return bookingRepository.findAllByBooker_IdAndEndBefore(bookerId, now, sortedByStart);
             case FUTURE:
-                allUsersBookings = bookingRepository.findAllByBooker_IdAndStartAfter(bookerId, now, sortedByStart);
-                break;
+                return bookingRepository.findAllByBooker_IdAndStartAfter(bookerId, now, sortedByStart);
             case CURRENT:
-                allUsersBookings = bookingRepository.findAllByBooker_IdAndStartBeforeAndEndAfter(
+                return bookingRepository.findAllByBooker_IdAndStartBeforeAndEndAfter(
                         bookerId, now, now, sortedByStart);
-                break;
             case WAITING:
-                allUsersBookings = bookingRepository.findAllByBooker_IdAndStatus(bookerId, Status.WAITING, sortedByStart);
-                break;
+                return bookingRepository.findAllByBooker_IdAndStatus(bookerId, Status.WAITING, sortedByStart);
             case REJECTED:
-                allUsersBookings =
-                        bookingRepository.findAllByBooker_IdAndStatus(bookerId, Status.REJECTED, sortedByStart);
-                break;
+                return bookingRepository.findAllByBooker_IdAndStatus(bookerId, Status.REJECTED, sortedByStart);
             default:
-                break;
+                return new ArrayList<>();
         }
-        List<BookingOutputDto> allBookingsDto = bookingMapper.map(allUsersBookings);
-        log.info("Покзаны все {} бронирования для bookerId={}", allBookingsDto.size(), bookerId);
-        return allBookingsDto;
     }
 
-    @Transactional(readOnly = true)
-    @Override
-    public List<BookingOutputDto> getAllOwnersBookings(Long ownerId, State state, int from, int size) {
-        if (from < 0) {
-            throw new IllegalArgumentException(String.format("illegal from: %s", from));
-        }
-        findUserById(ownerId);
-        List<Booking> allUsersBookings = new ArrayList<>();
-        Pageable sortedByStart = PageRequestUtil.of(from, size, Sort.by(Sort.Direction.DESC, "start"));
-        LocalDateTime now = LocalDateTime.now();
+    private List<Booking> findOwnersBookings(Long ownerId, State state, int from, int size, LocalDateTime now) {
+        Pageable sortedByStart = PageRequestUtil.of(from, size, NEWEST_FIRST);
         switch (state) {
             case ALL:
-                allUsersBookings = bookingRepository.findAllByItemOwnerId(ownerId, sortedByStart);
-                break;
+                return bookingRepository.findAllByItemOwnerId(ownerId, sortedByStart);
             case PAST:
-                allUsersBookings = bookingRepository.findAllByItemOwnerIdAndEndBefore(ownerId, now, sortedByStart);
-                break;
+                return bookingRepository.findAllByItemOwnerIdAndEndBefore(ownerId, now, sortedByStart);
             case FUTURE:
-                allUsersBookings =
-                        bookingRepository.findAllByItemOwnerIdAndStartAfter(ownerId, now, sortedByStart);
-                break;
+                return bookingRepository.findAllByItemOwnerIdAndStartAfter(ownerId, now, sortedByStart);
             case CURRENT:
-                allUsersBookings = bookingRepository.findAllByItem_Owner_IdAndStartBeforeAndEndAfter(
-                        ownerId, now, now, PageRequestUtil.of(from, size, Sort.by(Sort.Direction.DESC, "id"))
-                );
-                break;
+                return bookingRepository.findAllByItem_Owner_IdAndStartBeforeAndEndAfter(
+                        ownerId, now, now, sortedByStart);
             case WAITING:
-                allUsersBookings =
-                        bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Status.WAITING, sortedByStart);
-                break;
+                return bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Status.WAITING, sortedByStart);
             case REJECTED:
-                allUsersBookings =
-                        bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Status.REJECTED, sortedByStart);
-                break;
+                return bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Status.REJECTED, sortedByStart);
             default:
-                break;
+                return new ArrayList<>();
         }
-        List<BookingOutputDto> allBookingsDto = bookingMapper.map(allUsersBookings);
-        log.info("Показаны все {} бронирования для ownerId={}", allBookingsDto.size(), ownerId);
-        return allBookingsDto;
     }
 
     private Booking findBookingByIdAndUserId(Long bookingId, Long userId) {
@@ -190,11 +241,6 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private User findUserById(long userId) {
-        return userRepository.findById(userId).orElseThrow(() ->
-                new ElementNotFoundException(String.format("пользователь с id=%d не найден", userId)));
-    }
-
     private Item findItemById(long itemId) {
         return itemRepository.findById(itemId).orElseThrow(() ->
                 new ElementNotFoundException(String.format("вещь с id=%d не найдена", itemId)));
@@ -205,14 +251,20 @@ public class BookingServiceImpl implements BookingService {
                 new ElementNotFoundException(String.format("бронирование с id=%d не найдено", bookingId)));
     }
 
+    private boolean isAlreadyBooked(long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingIntervalIndex.isBooked(itemId, start, end, EnumSet.of(Status.APPROVED));
+    }
 
-    private boolean isAlreadyBooked(BookingInputDto bookingInputDto) {
-        Optional<Booking> doubleBooking = bookingRepository.findFirstByItem_IdAndEndAfterAndStartBeforeAndStatus(
-                bookingInputDto.getItemId(),
-                bookingInputDto.getStart(),
-                bookingInputDto.getEnd(),
-                Status.APPROVED);
-        return doubleBooking.isPresent();
+    private NotAvailableException alreadyBooked(Booking booking) {
+        log.error("Вещь с id={} уже забронирована на период {} - {}",
+                booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        return new NotAvailableException(
+                String.format("Вещь с id=%d уже забронирована на этот период", booking.getItem().getId()));
     }
 
+    private boolean isExclusionViolation(DataIntegrityViolationException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause instanceof SQLException
+                && EXCLUSION_VIOLATION_SQL_STATE.equals(((SQLException) cause).getSQLState());
+    }
 }
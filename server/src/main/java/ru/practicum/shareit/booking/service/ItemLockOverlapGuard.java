@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointersService;
+
+import java.util.List;
+
+// для баз без ограничения исключения (H2): подтверждения одной вещи идут по очереди под блокировкой
+// строки указателей, и пересечение проверяется по базе уже под ней
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking-overlap.mode", havingValue = "item-lock")
+public class ItemLockOverlapGuard implements ApprovalOverlapGuard {
+    private final ItemBookingPointersService itemBookingPointersService;
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public boolean overlapsApproved(Booking booking) {
+        long itemId = booking.getItem().getId();
+        itemBookingPointersService.lockItem(itemId);
+        return !bookingRepository.findItemIdsBookedBetween(List.of(itemId), booking.getStart(), booking.getEnd())
+                .isEmpty();
+    }
+}
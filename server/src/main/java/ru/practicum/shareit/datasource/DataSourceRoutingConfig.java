@@ -0,0 +1,67 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+    private static final String ENABLED = "shareit.datasource.routing.enabled";
+
+    @Bean
+    public ReplicaLagWindow replicaLagWindow(DataSourceRoutingProperties properties) {
+        if (!properties.isEnabled()) {
+            return ReplicaLagWindow.none();
+        }
+        return new ReplicaLagWindow(properties.getMaxLagMs() + properties.getHealthCheckIntervalMs());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true")
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true")
+    public ReplicaPool replicaPool(HikariDataSource primaryDataSource, DataSourceRoutingProperties properties) {
+        return new ReplicaPool(primaryDataSource, properties);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true")
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new TransactionRoutingDataSource(primaryDataSource, replicaPool));
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    // По умолчанию сессия держит соединение до закрытия, а с open-in-view это весь HTTP-запрос:
+    // записывающая транзакция после читающей получила бы соединение с реплики
+    @Bean
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true")
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource.routing")
+public class DataSourceRoutingProperties {
+    private boolean enabled = false;
+    private long maxLagMs = 1_000;
+    private long healthCheckIntervalMs = 1_000;
+    private long connectionTimeoutMs = 1_000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        // по умолчанию те же, что у основной базы
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.datasource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+// Реплика, прошедшая проверку, отстаёт не больше чем на max-lag-ms плюс время до следующей проверки.
+// Кэш, очищенный после коммита, за это время может заново заполниться данными с такой реплики,
+// поэтому очистка повторяется, когда окно истекло
+public class ReplicaLagWindow {
+    private final Executor delayed;
+
+    public ReplicaLagWindow(long windowMs) {
+        this.delayed = windowMs > 0 ? CompletableFuture.delayedExecutor(windowMs, TimeUnit.MILLISECONDS) : null;
+    }
+
+    public static ReplicaLagWindow none() {
+        return new ReplicaLagWindow(0);
+    }
+
+    public void repeatAfterLag(Runnable invalidation) {
+        if (delayed != null) {
+            delayed.execute(invalidation);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Slf4j
+class ReplicaNode {
+    // на простаивающей основной базе время последнего применённого коммита не меняется,
+    // поэтому реплика, применившая всё полученное, считается догнавшей
+    private static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private volatile boolean healthy;
+    private volatile long lagMs = -1;
+
+    ReplicaNode(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    long getLagMs() {
+        return lagMs;
+    }
+
+    Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    void check(long maxLagMs, int timeoutSeconds) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                lagMs = resultSet.getLong(1);
+            }
+        } catch (SQLException e) {
+            lagMs = -1;
+            markDown(e);
+            return;
+        }
+        if (lagMs > maxLagMs) {
+            setHealthy(false, String.format("отставание %d мс больше допустимых %d мс", lagMs, maxLagMs));
+        } else {
+            setHealthy(true, null);
+        }
+    }
+
+    void markDown(SQLException e) {
+        setHealthy(false, e.getMessage());
+    }
+
+    void bindTo(MetricsTrackerFactory metricsTrackerFactory) {
+        dataSource.setMetricsTrackerFactory(metricsTrackerFactory);
+    }
+
+    void close() {
+        dataSource.close();
+    }
+
+    private void setHealthy(boolean healthy, String reason) {
+        if (this.healthy == healthy) {
+            return;
+        }
+        this.healthy = healthy;
+        if (healthy) {
+            log.info("Реплика {} принимает чтение, отставание {} мс", name, lagMs);
+        } else {
+            log.warn("Реплика {} исключена из чтения: {}", name, reason);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Соединения для read-only транзакций: реплики по кругу, пропуская отстающие и недоступные,
+// а если подходящих нет — основная база в режиме только для чтения.
+// Метрики привязываются через MeterBinder: реестр метрик сам опрашивает все DataSource
+@Slf4j
+public class ReplicaPool extends AbstractDataSource implements MeterBinder {
+    private final HikariDataSource primary;
+    private final List<ReplicaNode> nodes = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long maxLagMs;
+    private final int checkTimeoutSeconds;
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReplicaPool(HikariDataSource primary, DataSourceRoutingProperties properties) {
+        this.primary = primary;
+        this.maxLagMs = properties.getMaxLagMs();
+        this.checkTimeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(
+                properties.getConnectionTimeoutMs()));
+        List<DataSourceRoutingProperties.Replica> replicas = properties.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            String name = "replica-" + i;
+            nodes.add(new ReplicaNode(name, createDataSource(name, replicas.get(i), properties)));
+        }
+        checkReplicas();
+        log.info("Чтение в read-only транзакциях распределяется по {} репликам", nodes.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int start = next.getAndIncrement();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReplicaNode node = nodes.get(Math.floorMod(start + i, nodes.size()));
+            if (!node.isHealthy()) {
+                continue;
+            }
+            try {
+                return node.getConnection();
+            } catch (SQLException e) {
+                node.markDown(e);
+            }
+        }
+        fallbacks.increment();
+        Connection connection = primary.getConnection();
+        connection.setReadOnly(true);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Пул реплик не выдаёт соединения под другим пользователем");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.routing.health-check-interval-ms:1000}")
+    public void checkReplicas() {
+        nodes.forEach(node -> node.check(maxLagMs, checkTimeoutSeconds));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ReplicaNode node : nodes) {
+            node.bindTo(new MicrometerMetricsTrackerFactory(registry));
+            Gauge.builder("shareit.datasource.replica.lag", node, ReplicaNode::getLagMs)
+                    .tag("replica", node.getName())
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("shareit.datasource.replica.healthy", node, n -> n.isHealthy() ? 1 : 0)
+                    .tag("replica", node.getName())
+                    .register(registry);
+        }
+        FunctionCounter.builder("shareit.datasource.replica.fallbacks", fallbacks, LongAdder::sum)
+                .register(registry);
+    }
+
+    public void close() {
+        nodes.forEach(ReplicaNode::close);
+    }
+
+    private HikariDataSource createDataSource(String name,
+                                              DataSourceRoutingProperties.Replica replica,
+                                              DataSourceRoutingProperties properties) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(replica.getUrl());
+        config.setDriverClassName(primary.getDriverClassName());
+        config.setUsername(Objects.requireNonNullElse(replica.getUsername(), primary.getUsername()));
+        config.setPassword(Objects.requireNonNullElse(replica.getPassword(), primary.getPassword()));
+        config.setMaximumPoolSize(replica.getMaximumPoolSize());
+        config.setConnectionTimeout(properties.getConnectionTimeoutMs());
+        config.setReadOnly(true);
+        // недоступная при старте реплика не мешает запуску: её исключит проверка состояния
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.datasource;
+
+public final class StreamingQueries {
+    // столько строк драйвер забирает из курсора за раз при потоковом чтении (Stream из репозитория)
+    public static final int FETCH_SIZE = 500;
+
+    private StreamingQueries() {
+    }
+}
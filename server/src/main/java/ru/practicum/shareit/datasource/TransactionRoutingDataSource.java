@@ -0,0 +1,28 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Флаг read-only выставляется уже после начала транзакции, поэтому источник должен
+// выбираться при первом запросе к базе: снаружи этот DataSource оборачивается в LazyConnectionDataSourceProxy
+public class TransactionRoutingDataSource extends AbstractRoutingDataSource {
+
+    public TransactionRoutingDataSource(DataSource primary, DataSource replicas) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replicas));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    private enum Route {
+        PRIMARY,
+        REPLICA
+    }
+}
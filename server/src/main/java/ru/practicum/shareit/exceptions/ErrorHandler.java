@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -78,4 +79,16 @@ public class ErrorHandler {
                 e.getMessage()
         );
     }
+
+    // версия сущности (@Version) служит и для ETag, поэтому параллельный PATCH той же вещи или пользователя
+    // проигрывает проверку версии: вместо молчаливой перезаписи клиент получает 409 и повторяет запрос
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(final ObjectOptimisticLockingFailureException e) {
+        log.warn("ObjectOptimisticLockingFailureException: {}", e.getMessage());
+        return new ErrorResponse(
+                String.format("объект с id=%s был изменён параллельным запросом, повторите запрос",
+                        e.getIdentifier())
+        );
+    }
 }
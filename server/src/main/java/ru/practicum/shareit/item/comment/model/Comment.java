@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.comment.model;
 
 import lombok.*;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -11,14 +12,14 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @ToString
-@EqualsAndHashCode
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
 @Table(name = "comments")
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private long id;
     @Column(name = "text", nullable = false)
     private String text;
@@ -31,4 +32,20 @@ public class Comment {
     @ManyToOne(fetch = FetchType.LAZY)
     @ToString.Exclude
     private User author;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return id != 0 && id == ((Comment) o).getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
 }
@@ -4,13 +4,20 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.utils.VersionSummary;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query(value = "SELECT c " +
-            "FROM  Comment c " +
-            "WHERE c.item.id IN :itemIds ")
+            "FROM  Comment c JOIN FETCH c.author " +
+            "WHERE c.item.id IN :itemIds " +
+            "ORDER BY c.id")
         //, nativeQuery = true)
     List<Comment> findAllInItemId(@Param("itemIds") List<Long> itemIds);
+
+    @Query("SELECT count(c) AS count, coalesce(max(c.id), 0) AS maxId, coalesce(sum(a.version), 0) AS versionSum " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id = :itemId")
+    VersionSummary summarizeByItemId(@Param("itemId") long itemId);
 }
@@ -1,14 +1,23 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.comment.dto.CommentInputDto;
 import ru.practicum.shareit.item.comment.dto.SavedCommentOutputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithCommentsOutputDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.utils.NdjsonWriter;
+import ru.practicum.shareit.utils.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -17,6 +26,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
     private static final String HEADER = "X-Sharer-User-Id";
     private static final String DEFAULT_SIZE = "25";
     private static final String DEFAULT_FROM = "0";
@@ -28,6 +38,13 @@ public class ItemController {
         return itemService.addItem(itemDto, ownerId);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> postItems(@RequestHeader(value = HEADER) long ownerId,
+                                   @RequestBody List<ItemDto> itemDtos) {
+        log.info("получен POST запрос на добавление {} вещей, ownerId={}", itemDtos.size(), ownerId);
+        return itemService.addItems(itemDtos, ownerId);
+    }
+
     @PostMapping("/{itemId}/comment")
     public SavedCommentOutputDto postComment(@RequestHeader(value = HEADER) long userId,
                                              @RequestBody CommentInputDto commentInputDto,
@@ -50,28 +67,46 @@ public class ItemController {
 
     @GetMapping("/{id}")
     public ItemWithCommentsOutputDto getItemById(@RequestHeader(value = HEADER) long userId,
-                                                 @PathVariable(value = "id") long id) {
+                                                 @PathVariable(value = "id") long id,
+                                                 WebRequest request) {
         log.info("получен GET запрос на показ веши с id={}", id);
-        return itemService.getItemById(id, userId);
+        return itemService.getItemById(id, userId, request::checkNotModified);
     }
 
     @GetMapping("")
-    public List<ItemWithCommentsOutputDto> getAllOwnersItems(@RequestHeader(value = HEADER) long ownerId,
-                                                             @RequestParam(value = "from",
-                                                                     defaultValue = DEFAULT_FROM) int from,
-                                                             @RequestParam(value = "size",
-                                                                     defaultValue = DEFAULT_SIZE) int size
+    public ResponseEntity<List<ItemWithCommentsOutputDto>> getAllOwnersItems(
+            @RequestHeader(value = HEADER) long ownerId,
+            @RequestParam(value = "from", defaultValue = DEFAULT_FROM) int from,
+            @RequestParam(value = "size", defaultValue = DEFAULT_SIZE) int size,
+            @RequestParam(value = "cursor", required = false) String cursor
     ) {
-        log.info("получен GET запрос на показ всех вещей владельца с ownerId={} from={} size={}", ownerId, from, size);
-        return itemService.getAllOwnersItems(ownerId, from, size);
+        log.info("получен GET запрос на показ всех вещей владельца с ownerId={} from={} size={} cursor={}",
+                ownerId, from, size, cursor);
+        List<ItemWithCommentsOutputDto> items =
+                itemService.getAllOwnersItems(ownerId, from, size, PageCursor.decode(cursor));
+        return PageCursor.toResponse(items, size, item -> PageCursor.of(item.getId()));
+    }
+
+    @GetMapping("/export")
+    public void exportOwnersItems(@RequestHeader(value = HEADER) long ownerId,
+                                  HttpServletResponse response) throws IOException {
+        log.info("получен GET запрос на выгрузку всех вещей владельца с ownerId={}", ownerId);
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response)) {
+            itemService.exportOwnersItems(ownerId, writer);
+        }
     }
 
     @GetMapping("/search")
     public List<ItemDto> findItems(@RequestParam(value = "text") String text,
+                                   @RequestParam(value = "start", required = false)
+                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                   @RequestParam(value = "end", required = false)
+                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
                                    @RequestParam(value = "from", defaultValue = DEFAULT_FROM) int from,
                                    @RequestParam(value = "size", defaultValue = DEFAULT_SIZE) int size
     ) {
-        log.info("получен GET запрос найти все вещи с текстом text={} from={} size={}", text, from, size);
-        return itemService.findItems(text, from, size);
+        log.info("получен GET запрос найти все вещи с текстом text={} start={} end={} from={} size={}",
+                text, start, end, from, size);
+        return itemService.findItems(text, start, end, from, size);
     }
 }
@@ -20,6 +20,7 @@ public interface ItemMapper {
 
     @Generated
     @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Item toItem(ItemDto itemDto);
 
     @Generated
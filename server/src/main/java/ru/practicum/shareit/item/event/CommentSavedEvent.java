@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class CommentSavedEvent {
+    private final long commentId;
+    private final long itemId;
+}
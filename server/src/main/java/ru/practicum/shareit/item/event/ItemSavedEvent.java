@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemSavedEvent {
+    private final long itemId;
+    private final String name;
+    private final String description;
+    private final boolean available;
+
+    public static ItemSavedEvent of(Item item) {
+        return new ItemSavedEvent(item.getId(),
+                item.getName(),
+                item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()));
+    }
+}
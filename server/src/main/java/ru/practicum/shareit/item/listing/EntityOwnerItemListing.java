@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.listing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.comment.dto.mapper.CommentMapper;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemWithCommentsOutputDto;
+import ru.practicum.shareit.item.dto.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAssemblyExecutor;
+import ru.practicum.shareit.item.service.ItemBookingPointersService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.PageCursor;
+import ru.practicum.shareit.utils.PageRequestUtil;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static java.time.LocalDateTime.now;
+import static java.util.stream.Collectors.groupingBy;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-listing.mode", havingValue = "entity")
+public class EntityOwnerItemListing implements OwnerItemListing {
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemMapper itemMapper;
+    private final CommentMapper commentMapper;
+    private final ItemBookingPointersService itemBookingPointersService;
+    private final ItemAssemblyExecutor itemAssemblyExecutor;
+
+    @Override
+    public List<ItemWithCommentsOutputDto> findOwnerItems(User owner, int from, int size, PageCursor after) {
+        Sort sortedById = Sort.by(Sort.Direction.ASC, "id");
+        List<Item> items = after == null
+                ? itemRepository.findAllByOwner(owner, PageRequestUtil.of(from, size, sortedById))
+                : itemRepository.findAllByOwnerAndIdGreaterThan(owner, after.getId(),
+                PageRequestUtil.firstPage(size, sortedById));
+        LocalDateTime now = now();
+        // задаче передаются только id и готовые DTO: сущности принадлежат сессии вызывающего потока,
+        // а Session не потокобезопасна
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        List<ItemWithCommentsOutputDto> itemWithCommentsOutputDto = items.stream()
+                .map(item -> itemMapper.toItemWithCommentDto(item, null, null))
+                .collect(Collectors.toList());
+        CompletableFuture<List<ItemWithCommentsOutputDto>> itemsWithBookings =
+                itemAssemblyExecutor.fork(() -> setLastAndNextBooking(itemWithCommentsOutputDto, itemIds, now));
+
+        Map<Long, List<Comment>> commentsMap = commentRepository.findAllInItemId(itemIds).stream()
+                .collect(groupingBy(comment -> comment.getItem().getId()));
+        itemAssemblyExecutor.join(itemsWithBookings)
+                .forEach(i -> i.setComments(commentMapper.outputMap(commentsMap.get(i.getId()))));
+        return itemWithCommentsOutputDto;
+    }
+
+    private List<ItemWithCommentsOutputDto> setLastAndNextBooking(List<ItemWithCommentsOutputDto> items,
+                                                                  List<Long> itemIds, LocalDateTime date) {
+        Map<Long, ItemBookingPointers> pointers = itemBookingPointersService.findActualPointers(itemIds, date);
+        items.forEach(item -> {
+            ItemBookingPointers itemPointers = pointers.get(item.getId());
+            if (itemPointers != null) {
+                item.setLastBooking(ItemMapper.toBookingForItemDto(itemPointers.getLastBooking()));
+                item.setNextBooking(ItemMapper.toBookingForItemDto(itemPointers.getNextBooking()));
+            }
+        });
+        return items;
+    }
+}
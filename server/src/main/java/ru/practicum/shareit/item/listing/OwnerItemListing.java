@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.listing;
+
+import ru.practicum.shareit.item.dto.ItemWithCommentsOutputDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.PageCursor;
+
+import java.util.List;
+
+public interface OwnerItemListing {
+    List<ItemWithCommentsOutputDto> findOwnerItems(User owner, int from, int size, PageCursor after);
+}
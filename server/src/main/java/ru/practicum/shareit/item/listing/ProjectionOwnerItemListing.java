@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.listing;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.comment.dto.CommentOutputDto;
+import ru.practicum.shareit.item.dto.ItemWithCommentsOutputDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.PageCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Страница вещей владельца собирается одним запросом сразу в DTO, без сущностей и контекста персистентности
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-listing.mode", havingValue = "projection", matchIfMissing = true)
+public class ProjectionOwnerItemListing implements OwnerItemListing {
+    private static final String OWNER_ITEMS_QUERY = "SELECT i.id, i.name, i.description, i.available, " +
+            "lb.id AS last_id, lb.start_date AS last_start, lb.end_date AS last_end, " +
+            "lb.booker_id AS last_booker_id, lb.status AS last_status, " +
+            "nb.id AS next_id, nb.start_date AS next_start, nb.end_date AS next_end, " +
+            "nb.booker_id AS next_booker_id, nb.status AS next_status, " +
+            "(SELECT json_agg(json_build_object('id', c.id, 'text', c.text, 'created', c.created, " +
+            "'authorName', u.name) ORDER BY c.id) " +
+            "FROM comments c JOIN users u ON u.id = c.author_id " +
+            "WHERE c.item_id = i.id) AS comments " +
+            "FROM (SELECT id, name, description, available FROM items " +
+            "WHERE owner_id = :ownerId AND id > :afterId " +
+            "ORDER BY id LIMIT :size OFFSET :from) i " +
+            "LEFT JOIN LATERAL (SELECT b.id, b.start_date, b.end_date, b.booker_id, b.status FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date < :now " +
+            "ORDER BY b.start_date DESC LIMIT 1) lb ON true " +
+            "LEFT JOIN LATERAL (SELECT b.id, b.start_date, b.end_date, b.booker_id, b.status FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date >= :now " +
+            "ORDER BY b.start_date LIMIT 1) nb ON true " +
+            "ORDER BY i.id";
+    private static final TypeReference<List<CommentOutputDto>> COMMENTS_TYPE = new TypeReference<>() {
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public List<ItemWithCommentsOutputDto> findOwnerItems(User owner, int from, int size, PageCursor after) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("ownerId", owner.getId())
+                .addValue("afterId", after == null ? 0 : after.getId())
+                .addValue("from", after == null ? from : 0)
+                .addValue("size", size)
+                .addValue("now", LocalDateTime.now());
+        return jdbcTemplate.query(OWNER_ITEMS_QUERY, parameters, (rs, rowNum) -> ItemWithCommentsOutputDto.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .available(rs.getObject("available", Boolean.class))
+                .lastBooking(toBooking(rs, "last_"))
+                .nextBooking(toBooking(rs, "next_"))
+                .comments(toComments(rs.getString("comments")))
+                .build());
+    }
+
+    private static BookingForItemDto toBooking(ResultSet rs, String prefix) throws SQLException {
+        Long id = rs.getObject(prefix + "id", Long.class);
+        if (id == null) {
+            return null;
+        }
+        return BookingForItemDto.builder()
+                .id(id)
+                .start(rs.getObject(prefix + "start", LocalDateTime.class))
+                .end(rs.getObject(prefix + "end", LocalDateTime.class))
+                .bookerId(rs.getObject(prefix + "booker_id", Long.class))
+                .status(Status.valueOf(rs.getString(prefix + "status")))
+                .build();
+    }
+
+    private List<CommentOutputDto> toComments(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, COMMENTS_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_booking_pointers")
+public class ItemBookingPointers {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    @ToString.Exclude
+    private Booking lastBooking;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    @ToString.Exclude
+    private Booking nextBooking;
+
+    public boolean isActualAt(LocalDateTime date) {
+        return nextBooking == null || !nextBooking.getStart().isBefore(date);
+    }
+
+    public boolean references(Booking booking) {
+        return (lastBooking != null && lastBooking.getId() == booking.getId()) ||
+                (nextBooking != null && nextBooking.getId() == booking.getId());
+    }
+
+    public void offer(Booking approvedBooking, LocalDateTime date) {
+        if (approvedBooking.getStart().isBefore(date)) {
+            if (lastBooking == null || approvedBooking.getStart().isAfter(lastBooking.getStart())) {
+                lastBooking = approvedBooking;
+            }
+        } else if (nextBooking == null || approvedBooking.getStart().isBefore(nextBooking.getStart())) {
+            nextBooking = approvedBooking;
+        }
+    }
+}
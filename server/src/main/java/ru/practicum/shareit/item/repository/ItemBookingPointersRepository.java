@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingPointersRepository extends JpaRepository<ItemBookingPointers, Long> {
+    @Query("SELECT p FROM ItemBookingPointers p " +
+            "LEFT JOIN FETCH p.lastBooking " +
+            "LEFT JOIN FETCH p.nextBooking " +
+            "WHERE p.itemId IN :itemIds")
+    List<ItemBookingPointers> findAllByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ItemBookingPointers> findByItemId(Long itemId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO item_booking_pointers (item_id) " +
+            "SELECT i.id FROM items i WHERE i.id IN :itemIds", nativeQuery = true)
+    int insertEmptyForItems(@Param("itemIds") Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ItemBookingPointers> findAllByNextBooking_StartBefore(LocalDateTime date, Pageable pageable);
+}
@@ -2,21 +2,64 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.datasource.StreamingQueries;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.VersionSummary;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwner(User owner, Pageable pageable);
 
-    List<Item> findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailableIs(String text1,
-                                                                                                String text2,
-                                                                                                boolean isAvailable,
-                                                                                                Pageable pageable);
+    List<Item> findAllByOwnerAndIdGreaterThan(User owner, long id, Pageable pageable);
+
+    List<Item> findAllByIdGreaterThan(long id, Pageable pageable);
+
+    // без fetch size драйвер PostgreSQL читает весь результат в память ещё до первой строки
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + StreamingQueries.FETCH_SIZE))
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.request WHERE i.owner.id = :ownerId ORDER BY i.id")
+    Stream<Item> streamAllByOwnerId(@Param("ownerId") long ownerId);
+
+    @Query(value = "SELECT i.* FROM items i, websearch_to_tsquery('russian', :text) q " +
+            "WHERE i.available = true " +
+            "AND i.search_vector @@ q " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Item> searchAvailableByText(@Param("text") String text,
+                                     @Param("from") int from,
+                                     @Param("size") int size);
+
+    @Query(value = "SELECT i.* FROM items i, websearch_to_tsquery('russian', :text) q " +
+            "WHERE i.available = true " +
+            "AND i.search_vector @@ q " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b " +
+            "WHERE b.item_id = i.id " +
+            "AND b.status = 'APPROVED' " +
+            "AND tsrange(b.start_date, b.end_date) && tsrange(:start, :end)) " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Item> searchAvailableByTextFreeBetween(@Param("text") String text,
+                                                @Param("start") LocalDateTime start,
+                                                @Param("end") LocalDateTime end,
+                                                @Param("from") int from,
+                                                @Param("size") int size);
 
     Optional<List<Item>> findAllByRequest_Id(long requestId);
 
     Optional<List<Item>> findAllByRequest_IdIn(List<Long> requestsIds);
+
+    @Query("SELECT count(i) AS count, coalesce(max(i.id), 0) AS maxId, coalesce(sum(i.version), 0) AS versionSum " +
+            "FROM Item i " +
+            "WHERE i.request.id = :requestId")
+    VersionSummary summarizeByRequestId(@Param("requestId") long requestId);
 }
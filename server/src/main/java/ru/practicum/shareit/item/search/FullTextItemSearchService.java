@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "full-text")
+public class FullTextItemSearchService implements ItemSearchService {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> findAvailableItems(String text, int from, int size) {
+        return itemRepository.searchAvailableByText(text, from, size);
+    }
+
+    @Override
+    public List<Item> findItemsFreeBetween(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return itemRepository.searchAvailableByTextFreeBetween(text, start, end, from, size);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "index", matchIfMissing = true)
+public class IndexedItemSearchService implements ItemSearchService {
+    private static final int FREE_SEARCH_CHUNK_SIZE = 200;
+
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public List<Item> findAvailableItems(String text, int from, int size) {
+        return findAllInOrder(itemSearchIndex.search(text, from, size));
+    }
+
+    @Override
+    public List<Item> findItemsFreeBetween(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        int chunkSize = Math.max(FREE_SEARCH_CHUNK_SIZE, from + size);
+        List<Long> freeIds = new ArrayList<>();
+        int skipped = 0;
+        int offset = 0;
+        List<Long> chunk;
+        do {
+            chunk = itemSearchIndex.search(text, offset, chunkSize);
+            offset += chunk.size();
+            Set<Long> bookedIds = chunk.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(bookingRepository.findItemIdsBookedBetween(chunk, start, end));
+            for (Long id : chunk) {
+                if (bookedIds.contains(id)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else if (freeIds.size() < size) {
+                    freeIds.add(id);
+                }
+            }
+        } while (freeIds.size() < size && chunk.size() == chunkSize);
+        return findAllInOrder(freeIds);
+    }
+
+    private List<Item> findAllInOrder(List<Long> ids) {
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
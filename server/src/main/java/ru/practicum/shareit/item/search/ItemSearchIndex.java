@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "index", matchIfMissing = true)
+public class ItemSearchIndex {
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Comparator<Map.Entry<Long, Integer>> BEST_FIRST =
+            Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey());
+
+    private final ItemRepository itemRepository;
+    private final ConcurrentNavigableMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<String>> itemTerms = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        postings.clear();
+        itemTerms.clear();
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findAllByIdGreaterThan(lastId,
+                    PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by(Sort.Direction.ASC, "id")));
+            for (Item item : batch) {
+                index(ItemSavedEvent.of(item));
+                lastId = item.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("Поисковый индекс построен: {} вещей, {} термов", itemTerms.size(), postings.size());
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        index(event);
+    }
+
+    public synchronized void index(ItemSavedEvent item) {
+        remove(item.getItemId());
+        if (!item.isAvailable()) {
+            return;
+        }
+        Map<String, Integer> weights = new HashMap<>();
+        ItemTextAnalyzer.analyze(item.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        ItemTextAnalyzer.analyze(item.getDescription())
+                .forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        weights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(item.getItemId(), weight));
+        itemTerms.put(item.getItemId(), weights.keySet());
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        Set<String> queryTerms = new LinkedHashSet<>(ItemTextAnalyzer.analyze(text));
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Integer> scores = null;
+        for (String term : queryTerms) {
+            Map<Long, Integer> termScores = scoreByPrefix(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        return topByScore(scores, from, size);
+    }
+
+    // куча на from + size лучших вместо полной сортировки: по короткому префиксу совпадений может быть
+    // почти весь каталог, а страница нужна одна
+    private static List<Long> topByScore(Map<Long, Integer> scores, int from, int size) {
+        int limit = (int) Math.min((long) from + size, scores.size());
+        if (from >= limit) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<Map.Entry<Long, Integer>> worstFirst = new PriorityQueue<>(limit, BEST_FIRST.reversed());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            if (worstFirst.size() < limit) {
+                worstFirst.add(entry);
+            } else if (BEST_FIRST.compare(entry, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(entry);
+            }
+        }
+        Long[] top = new Long[limit];
+        for (int i = limit - 1; i >= 0; i--) {
+            top[i] = worstFirst.poll().getKey();
+        }
+        return Arrays.asList(top).subList(from, limit);
+    }
+
+    private Map<Long, Integer> scoreByPrefix(String prefix) {
+        Map<Long, Integer> scores = new HashMap<>();
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()
+                .forEach(posting -> posting.forEach((id, weight) -> scores.merge(id, weight, Integer::sum)));
+        return scores;
+    }
+
+    private void remove(long itemId) {
+        Set<String> terms = itemTerms.remove(itemId);
+        if (terms == null) {
+            return;
+        }
+        terms.forEach(term -> postings.computeIfPresent(term, (t, posting) -> {
+            posting.remove(itemId);
+            return posting.isEmpty() ? null : posting;
+        }));
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchService {
+    List<Item> findAvailableItems(String text, int from, int size);
+
+    List<Item> findItemsFreeBetween(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Разбивает текст на термы для поискового индекса вещей.
+ *
+ * <p>Термы приводятся к нижнему регистру, а у русских и английских слов отрезаются
+ * типичные окончания, чтобы "дрель", "дрели" и "дрелью" попадали в один терм.
+ */
+public final class ItemTextAnalyzer {
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int MIN_STEM_LENGTH = 3;
+    private static final String[] RUSSIAN_SUFFIXES = {
+        "иями", "ями", "ами", "иях", "ого", "его", "ому", "ему", "ыми", "ими", "ией",
+        "ах", "ях", "ам", "ям", "ов", "ев", "ом", "ем", "ой", "ей", "ий", "ый", "ая", "яя",
+        "ое", "ее", "ие", "ые", "ую", "юю", "ью", "ия", "ию",
+        "а", "я", "о", "е", "ы", "и", "у", "ю", "ь", "й"
+    };
+    private static final String[] ENGLISH_SUFFIXES = {"ing", "ies", "es", "ed", "ly", "s"};
+
+    private ItemTextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : DELIMITER.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (!token.isEmpty()) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String token) {
+        String[] suffixes = isCyrillic(token) ? RUSSIAN_SUFFIXES : ENGLISH_SUFFIXES;
+        for (String suffix : suffixes) {
+            if (token.endsWith(suffix) && token.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                return token.substring(0, token.length() - suffix.length());
+            }
+        }
+        return token;
+    }
+
+    private static boolean isCyrillic(String token) {
+        return Character.UnicodeBlock.of(token.charAt(0)) == Character.UnicodeBlock.CYRILLIC;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class ItemAssemblyExecutor {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter inlineRuns;
+
+    // Вызывающий поток держит соединение, пока ждёт задачу, поэтому потоков
+    // должно быть меньше половины пула соединений, иначе пул можно исчерпать;
+    // при threads=0 задачи всегда выполняются в вызывающем потоке
+    public ItemAssemblyExecutor(PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.item-assembly.threads:4}") int threads) {
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(Math.max(1, threads), new CustomizableThreadFactory("item-assembly-")),
+                "itemAssembly");
+        this.permits = new Semaphore(threads);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.inlineRuns = meterRegistry.counter("shareit.item-assembly.inline");
+    }
+
+    // Задача выполняется в отдельной read-only транзакции на своём соединении;
+    // если все потоки заняты, она выполняется сразу в вызывающем потоке
+    public <T> CompletableFuture<T> fork(Supplier<T> task) {
+        if (!permits.tryAcquire()) {
+            inlineRuns.increment();
+            return CompletableFuture.completedFuture(task.get());
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> task.get()), executor)
+                    .whenComplete((result, e) -> permits.release());
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
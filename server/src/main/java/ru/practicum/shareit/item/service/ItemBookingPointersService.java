@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
+import ru.practicum.shareit.item.repository.ItemBookingPointersRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingPointersService {
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final ItemBookingPointersRepository pointersRepository;
+    private final BookingRepository bookingRepository;
+
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingPointers> findActualPointers(Collection<Long> itemIds, LocalDateTime date) {
+        Map<Long, ItemBookingPointers> pointers = pointersRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingPointers::getItemId, Function.identity()));
+        List<Long> staleItemIds = pointers.values().stream()
+                .filter(itemPointers -> !itemPointers.isActualAt(date))
+                .map(ItemBookingPointers::getItemId)
+                .collect(Collectors.toList());
+        if (!staleItemIds.isEmpty()) {
+            pointers.putAll(computePointers(staleItemIds, date));
+        }
+        return pointers;
+    }
+
+    // строка создаётся вместе с вещью: так onBookingStatusChanged всегда блокирует существующую строку,
+    // и два одновременных первых подтверждения не вставляют её дважды
+    @Transactional
+    public void createEmptyPointers(Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            pointersRepository.insertEmptyForItems(itemIds);
+        }
+    }
+
+    // блокировка строки вещи до конца транзакции: подтверждения бронирований одной вещи идут по очереди
+    @Transactional
+    public void lockItem(long itemId) {
+        findLocked(itemId);
+    }
+
+    @Transactional
+    public void onBookingStatusChanged(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        Long itemId = booking.getItem().getId();
+        ItemBookingPointers pointers = findLocked(itemId);
+        boolean isApproved = booking.getStatus() == Status.APPROVED;
+        if (!isApproved && !pointers.references(booking)) {
+            return;
+        }
+        if (!isApproved || !pointers.isActualAt(now)) {
+            refresh(pointers, computePointers(List.of(itemId), now).get(itemId));
+        }
+        if (isApproved) {
+            pointers.offer(booking, now);
+        }
+        pointersRepository.save(pointers);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-booking-pointers.refresh-interval-ms:60000}")
+    @Transactional
+    public void advanceStalePointers() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemBookingPointers> stale = pointersRepository.findAllByNextBooking_StartBefore(now,
+                PageRequest.of(0, REFRESH_BATCH_SIZE));
+        if (stale.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemBookingPointers> actual = computePointers(
+                stale.stream().map(ItemBookingPointers::getItemId).collect(Collectors.toList()), now);
+        stale.forEach(pointers -> refresh(pointers, actual.get(pointers.getItemId())));
+        pointersRepository.saveAll(stale);
+        log.info("Обновлены указатели бронирований для {} вещей", stale.size());
+    }
+
+    private ItemBookingPointers findLocked(long itemId) {
+        return pointersRepository.findByItemId(itemId)
+                .orElseThrow(() -> new IllegalStateException(
+                        String.format("нет указателей бронирований для вещи с id=%d", itemId)));
+    }
+
+    private void refresh(ItemBookingPointers pointers, ItemBookingPointers actual) {
+        pointers.setLastBooking(actual.getLastBooking());
+        pointers.setNextBooking(actual.getNextBooking());
+    }
+
+    private Map<Long, ItemBookingPointers> computePointers(List<Long> itemIds, LocalDateTime date) {
+        Map<Long, Booking> lastBookings = bookingRepository.findLastBookingsForItems(itemIds,
+                        Status.APPROVED.toString(), date).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+        Map<Long, Booking> nextBookings = bookingRepository.findNextBookingsForItems(itemIds,
+                        Status.APPROVED.toString(), date).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+        return itemIds.stream().collect(Collectors.toMap(Function.identity(), itemId ->
+                new ItemBookingPointers(itemId, lastBookings.get(itemId), nextBookings.get(itemId))));
+    }
+}
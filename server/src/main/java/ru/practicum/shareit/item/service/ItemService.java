@@ -4,20 +4,30 @@ import ru.practicum.shareit.item.comment.dto.CommentInputDto;
 import ru.practicum.shareit.item.comment.dto.SavedCommentOutputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithCommentsOutputDto;
+import ru.practicum.shareit.utils.NdjsonWriter;
+import ru.practicum.shareit.utils.PageCursor;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface ItemService {
 
     ItemDto addItem(ItemDto itemDto, long userId);
 
+    List<ItemDto> addItems(List<ItemDto> itemDtos, long userId);
+
     ItemDto updateItem(long itemId, ItemDto itemDto, long ownerId);
 
-    ItemWithCommentsOutputDto getItemById(long id, long userId);
+    // null, если notModified принял ETag текущей версии: тогда комментарии не читаются
+    ItemWithCommentsOutputDto getItemById(long id, long userId, Predicate<String> notModified);
+
+    List<ItemWithCommentsOutputDto> getAllOwnersItems(long ownerId, int from, int size, PageCursor after);
 
-    List<ItemWithCommentsOutputDto> getAllOwnersItems(long ownerId, int from, int size);
+    void exportOwnersItems(long ownerId, NdjsonWriter writer) throws IOException;
 
-    List<ItemDto> findItems(String text, int from, int size);
+    List<ItemDto> findItems(String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     SavedCommentOutputDto addComment(CommentInputDto commentInputDto, long itemId, long userId);
 }
@@ -2,11 +2,11 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.NotAvailableException;
 import ru.practicum.shareit.exceptions.ElementNotFoundException;
@@ -19,64 +19,112 @@ import ru.practicum.shareit.item.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithCommentsOutputDto;
 import ru.practicum.shareit.item.dto.mapper.ItemMapper;
+import ru.practicum.shareit.item.event.CommentSavedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.listing.OwnerItemListing;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchService;
+import ru.practicum.shareit.item.view.ItemView;
+import ru.practicum.shareit.item.view.ItemViewCache;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.utils.PageRequestUtil;
+import ru.practicum.shareit.utils.NdjsonWriter;
+import ru.practicum.shareit.utils.PageCursor;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.EntityTag;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static java.time.LocalDateTime.now;
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchService itemSearchService;
+    private final ItemBookingPointersService itemBookingPointersService;
+    private final ItemViewCache itemViewCache;
+    private final OwnerItemListing ownerItemListing;
+    private final ApplicationEventPublisher eventPublisher;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Transactional
     @Override
     public ItemDto addItem(ItemDto newItemDto, long userId) {
-        User owner = findUserById(userId);
-        Item newItem = itemMapper.toItem(newItemDto);
-        newItem.setOwner(owner);
-        if (newItemDto.getRequestId() != null) {
-            ItemRequest request = itemRequestRepository.getReferenceById(newItemDto.getRequestId());
-            newItem.setRequest(request);
-        }
-        Item addedItem = itemRepository.save(newItem);
+        User owner = userExistenceCache.getReference(userId);
+        Item addedItem = itemRepository.save(toNewItem(newItemDto, owner));
+        itemBookingPointersService.createEmptyPointers(List.of(addedItem.getId()));
+        eventPublisher.publishEvent(ItemSavedEvent.of(addedItem));
         log.info("Добавлена вещь ={}", addedItem);
         return itemMapper.toItemDto(addedItem);
     }
 
-    @Transactional(readOnly = true)
+    // id выдаются из последовательности блоками, поэтому вставки уходят пакетами при flush
+    @Transactional
     @Override
-    public ItemWithCommentsOutputDto getItemById(long id, long userId) {
+    public List<ItemDto> addItems(List<ItemDto> newItemDtos, long userId) {
+        User owner = userExistenceCache.getReference(userId);
+        List<Item> newItems = newItemDtos.stream()
+                .map(newItemDto -> toNewItem(newItemDto, owner))
+                .collect(toList());
+        List<Item> addedItems = itemRepository.saveAll(newItems);
+        itemBookingPointersService.createEmptyPointers(addedItems.stream().map(Item::getId).collect(toList()));
+        addedItems.forEach(item -> eventPublisher.publishEvent(ItemSavedEvent.of(item)));
+        log.info("Добавлено {} вещей владельца с ownerId={}", addedItems.size(), userId);
+        return itemMapper.mapDto(addedItems);
+    }
+
+    // тег и тело читаются из одного снимка: иначе изменение между запросами дало бы старый тег к новому телу
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    @Override
+    public ItemWithCommentsOutputDto getItemById(long id, long userId, Predicate<String> notModified) {
+        ItemView cached = itemViewCache.get(id, userId);
+        if (cached != null) {
+            return notModified.test(cached.getETag()) ? null : cached.getItem();
+        }
+        long generation = itemViewCache.generation(id);
         Item item = findItemById(id);
-        ItemWithCommentsOutputDto itemWithCommentsOutputDto;
-        if (item.getOwner().getId() == (userId)) {
-            LocalDateTime now = now();
-            itemWithCommentsOutputDto = findItemsWithLastAndNextBooking(item, now);
+        boolean ownerView = item.getOwner().getId() == userId;
+        String comments = EntityTag.of(commentRepository.summarizeByItemId(id));
+        Booking lastBooking = null;
+        Booking nextBooking = null;
+        String eTag;
+        if (ownerView) {
+            ItemBookingPointers pointers = itemBookingPointersService.findActualPointers(List.of(id), now()).get(id);
+            lastBooking = pointers == null ? null : pointers.getLastBooking();
+            nextBooking = pointers == null ? null : pointers.getNextBooking();
+            eTag = EntityTag.of("item", id, item.getVersion(), comments, idOf(lastBooking), idOf(nextBooking));
         } else {
-            itemWithCommentsOutputDto = itemMapper.toItemWithCommentDto(item, null, null);
+            eTag = EntityTag.of("item", id, item.getVersion(), comments);
+        }
+        if (notModified.test(eTag)) {
+            return null;
         }
 
+        ItemWithCommentsOutputDto itemWithCommentsOutputDto =
+                itemMapper.toItemWithCommentDto(item, lastBooking, nextBooking);
         Map<Long, List<Comment>> commentsMap = findCommentsForItem(List.of(id));
         itemWithCommentsOutputDto.setComments(commentMapper.outputMap(commentsMap.get(id)));
 
@@ -84,15 +132,16 @@ public class ItemServiceImpl implements ItemService {
             itemWithCommentsOutputDto.setComments(Collections.emptyList());
         }
 
+        itemViewCache.put(id, new ItemView(item.getOwner().getId(), ownerView, eTag, itemWithCommentsOutputDto),
+                generation);
         log.info("Получена вещь ={}, by id={}", itemWithCommentsOutputDto, id);
         return itemWithCommentsOutputDto;
-
     }
 
     @Transactional
     @Override
     public ItemDto updateItem(long itemId, ItemDto itemDto, long ownerId) {
-        User owner = findUserById(ownerId);
+        User owner = userExistenceCache.getReference(ownerId);
         Item oldItem = findItemById(itemId);
 
         checkAccess(owner, oldItem);
@@ -102,6 +151,7 @@ public class ItemServiceImpl implements ItemService {
         newItem.setId(itemId);
         newItem.setOwner(owner);
         newItem.setRequest(oldItem.getRequest());
+        newItem.setVersion(oldItem.getVersion());
 
         if (Objects.isNull(newItem.getName())) {
             newItem.setName(oldItem.getName());
@@ -114,40 +164,52 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(newItem);
+        eventPublisher.publishEvent(ItemSavedEvent.of(updatedItem));
         log.info("вещь ={} обновлена на новую вещь ={}", oldItem, updatedItem);
         return itemMapper.toItemDto(updatedItem);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemWithCommentsOutputDto> getAllOwnersItems(long ownerId, int from, int size) {
-        User owner = findUserById(ownerId);
-        List<Item> items = itemRepository.findAllByOwner(owner,
-                PageRequestUtil.of(from, size, Sort.by(Sort.Direction.ASC, "id")));
-        LocalDateTime now = now();
-        List<ItemWithCommentsOutputDto> itemWithCommentsOutputDto = findItemsWithLastAndNextBooking(items, now);
-
-        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
-        Map<Long, List<Comment>> commentsMap = findCommentsForItem(itemIds);
-        itemWithCommentsOutputDto.forEach(i -> i.setComments(commentMapper.outputMap(commentsMap.get(i.getId()))));
+    public List<ItemWithCommentsOutputDto> getAllOwnersItems(long ownerId, int from, int size, PageCursor after) {
+        User owner = userExistenceCache.getReference(ownerId);
+        List<ItemWithCommentsOutputDto> itemWithCommentsOutputDto =
+                ownerItemListing.findOwnerItems(owner, from, size, after);
 
         log.info("Получен список {} вещей владельца с ownerId={}", itemWithCommentsOutputDto.size(), ownerId);
         return itemWithCommentsOutputDto;
     }
 
+    // курсор PostgreSQL работает только внутри транзакции, а уже выгруженные вещи
+    // убираются из контекста персистентности, чтобы память не росла вместе с выгрузкой
+    @Transactional(readOnly = true)
+    @Override
+    public void exportOwnersItems(long ownerId, NdjsonWriter writer) throws IOException {
+        userExistenceCache.require(ownerId);
+        long exported;
+        try (Stream<Item> items = itemRepository.streamAllByOwnerId(ownerId)) {
+            exported = writer.writeAll(items, itemMapper::toItemDto, entityManager::clear);
+        }
+        log.info("Выгружено {} вещей владельца с ownerId={}", exported, ownerId);
+    }
+
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> findItems(String text, int from, int size) {
+    public List<ItemDto> findItems(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if ((start == null) != (end == null)) {
+            throw new IllegalArgumentException("start and end must be set together");
+        }
+        if (start != null && !end.isAfter(start)) {
+            throw new IllegalArgumentException(String.format("illegal period: %s - %s", start, end));
+        }
         if (text.isBlank()) {
             log.warn("Текст для поиска пустой");
             return Collections.emptyList();
         }
-        List<Item> items = itemRepository
-                .findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailableIs(text,
-                        text,
-                        true,
-                        PageRequestUtil.of(from, size, Sort.by(Sort.Direction.ASC, "id")));
-        log.info("Найдены и показаны {} вещи с текстом text={} ", items.size(), text);
+        List<Item> items = start == null
+                ? itemSearchService.findAvailableItems(text, from, size)
+                : itemSearchService.findItemsFreeBetween(text, start, end, from, size);
+        log.info("Найдены и показаны {} вещи с текстом text={} start={} end={}", items.size(), text, start, end);
         return itemMapper.mapDto(items);
     }
 
@@ -155,7 +217,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public SavedCommentOutputDto addComment(CommentInputDto commentInputDto, long itemId, long userId) {
         Comment newComment = commentMapper.toComment(commentInputDto);
-        User author = findUserById(userId);
+        User author = userExistenceCache.getReference(userId);
         Item item = findItemById(itemId);
         LocalDateTime now = newComment.getCreated();
         Booking booking = bookingRepository.findFirstByItem_IdAndBooker_IdAndEndBefore(itemId, userId, now);
@@ -167,31 +229,20 @@ public class ItemServiceImpl implements ItemService {
         newComment.setItem(item);
         newComment.setAuthor(author);
         Comment addedComment = commentRepository.save(newComment);
+        eventPublisher.publishEvent(new CommentSavedEvent(addedComment.getId(), itemId));
         return commentMapper.toSavedCommentOutputDto(addedComment);
     }
 
-    private List<ItemWithCommentsOutputDto> findItemsWithLastAndNextBooking(List<Item> items,
-                                                                            LocalDateTime date) {
-        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
-
-
-        List<Booking> lastBookings = bookingRepository.findLastBookingsForItems(itemIds,
-                Status.APPROVED.toString(),
-                date);
-        Map<Long, Booking> lastBookingMap = lastBookings.stream().collect(Collectors.toMap(
-                booking -> booking.getItem().getId(), Function.identity()));
-
-        List<Booking> nextBookings = bookingRepository.findNextBookingsForItems(itemIds,
-                Status.APPROVED.toString(),
-                date);
-        Map<Long, Booking> nextBookingMap = nextBookings.stream().collect(Collectors.toMap(
-                booking -> booking.getItem().getId(), Function.identity()));
-
-        return items.stream()
-                .map(item -> itemMapper.toItemWithCommentDto(item,
-                        lastBookingMap.get(item.getId()),
-                        nextBookingMap.get(item.getId())))
-                .collect(Collectors.toList());
+    private Item toNewItem(ItemDto newItemDto, User owner) {
+        Item newItem = itemMapper.toItem(newItemDto);
+        // id из тела запроса не должен превращать вставку в обновление чужой вещи
+        newItem.setId(0);
+        newItem.setOwner(owner);
+        if (newItemDto.getRequestId() != null) {
+            ItemRequest request = itemRequestRepository.getReferenceById(newItemDto.getRequestId());
+            newItem.setRequest(request);
+        }
+        return newItem;
     }
 
     private Map<Long, List<Comment>> findCommentsForItem(List<Long> itemIds) {
@@ -200,8 +251,8 @@ public class ItemServiceImpl implements ItemService {
                 groupingBy(comment -> comment.getItem().getId()));
     }
 
-    private ItemWithCommentsOutputDto findItemsWithLastAndNextBooking(Item item, LocalDateTime date) {
-        return findItemsWithLastAndNextBooking(List.of(item), date).get(0);
+    private static long idOf(Booking booking) {
+        return booking == null ? 0 : booking.getId();
     }
 
     private void checkAccess(User owner, Item itemForUpdate) {
@@ -211,11 +262,6 @@ public class ItemServiceImpl implements ItemService {
         throw new NotOwnerException("Только владелец имеет доступ к вещи");
     }
 
-    private User findUserById(long userId) {
-        return userRepository.findById(userId).orElseThrow(() ->
-                new ElementNotFoundException(String.format("Пользователь с id=%d не найден", userId)));
-    }
-
     private Item findItemById(long itemId) {
         return itemRepository.findById(itemId).orElseThrow(() ->
                 new ElementNotFoundException(String.format("Вещь с id=%d не найдена", itemId)));
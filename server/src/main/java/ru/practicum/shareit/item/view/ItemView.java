@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemWithCommentsOutputDto;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ItemView {
+    private final long ownerId;
+    private final boolean ownerView;
+    private final String eTag;
+    private final ItemWithCommentsOutputDto item;
+
+    // указатели на бронирования в представлении владельца устаревают, когда начинается следующее бронирование
+    public LocalDateTime validUntil() {
+        return ownerView && item.getNextBooking() != null ? item.getNextBooking().getStart() : null;
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.view;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingSavedEvent;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.datasource.ReplicaLagWindow;
+import ru.practicum.shareit.item.event.CommentSavedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+@Component
+public class ItemViewCache {
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Key, ItemView> views;
+    // поколение на вещь (с точностью до полосы): инвалидация одной вещи не мешает кэшировать остальные
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final ReplicaLagWindow replicaLagWindow;
+
+    public ItemViewCache(MeterRegistry meterRegistry,
+                         ReplicaLagWindow replicaLagWindow,
+                         @Value("${shareit.item-views.max-size:10000}") long maxSize,
+                         @Value("${shareit.item-views.ttl-ms:600000}") long ttlMs) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ViewExpiry(TimeUnit.MILLISECONDS.toNanos(ttlMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "itemViews");
+        this.replicaLagWindow = replicaLagWindow;
+    }
+
+    public ItemView get(long itemId, long userId) {
+        ItemView view = views.getIfPresent(new Key(itemId, false));
+        if (view != null && view.getOwnerId() != userId) {
+            return view;
+        }
+        view = views.getIfPresent(new Key(itemId, true));
+        return view != null && view.getOwnerId() == userId ? view : null;
+    }
+
+    // снимок берётся до чтения из базы: представление, собранное во время инвалидации вещи, не кэшируется
+    public long generation(long itemId) {
+        return generations.get(stripe(itemId));
+    }
+
+    public void put(long itemId, ItemView view, long loadedAtGeneration) {
+        if (generation(itemId) != loadedAtGeneration) {
+            return;
+        }
+        Key key = new Key(itemId, view.isOwnerView());
+        views.put(key, view);
+        if (generation(itemId) != loadedAtGeneration) {
+            views.invalidate(key);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        invalidate(event.getItemId(), false);
+        invalidate(event.getItemId(), true);
+    }
+
+    @TransactionalEventListener
+    public void onCommentSaved(CommentSavedEvent event) {
+        invalidate(event.getItemId(), false);
+        invalidate(event.getItemId(), true);
+    }
+
+    // владелец видит только подтверждённые бронирования, а из APPROVED статус уже не меняется
+    @TransactionalEventListener
+    public void onBookingSaved(BookingSavedEvent event) {
+        if (event.getStatus() == Status.APPROVED) {
+            invalidate(event.getItemId(), true);
+        }
+    }
+
+    // имя пользователя показывается в комментариях к любым вещам, а переименования редки
+    @TransactionalEventListener
+    public void onUserSaved(UserSavedEvent event) {
+        invalidateAll();
+        replicaLagWindow.repeatAfterLag(this::invalidateAll);
+        log.debug("Кэш представлений вещей очищен после изменения пользователя id={}", event.getUserId());
+    }
+
+    private void invalidate(long itemId, boolean ownerView) {
+        Key key = new Key(itemId, ownerView);
+        invalidate(key);
+        // представление могли заново собрать с реплики, ещё не получившей изменение
+        replicaLagWindow.repeatAfterLag(() -> invalidate(key));
+    }
+
+    private void invalidate(Key key) {
+        generations.incrementAndGet(stripe(key.itemId));
+        views.invalidate(key);
+    }
+
+    private void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        views.invalidateAll();
+    }
+
+    private static int stripe(long itemId) {
+        return Long.hashCode(itemId) & (GENERATION_STRIPES - 1);
+    }
+
+    @EqualsAndHashCode
+    private static class Key {
+        private final long itemId;
+        private final boolean ownerView;
+
+        Key(long itemId, boolean ownerView) {
+            this.itemId = itemId;
+            this.ownerView = ownerView;
+        }
+    }
+
+    private static class ViewExpiry implements Expiry<Key, ItemView> {
+        private final long ttlNanos;
+
+        ViewExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Key key, ItemView view, long currentTime) {
+            LocalDateTime validUntil = view.validUntil();
+            if (validUntil == null) {
+                return ttlNanos;
+            }
+            long untilValidMs = Duration.between(LocalDateTime.now(), validUntil).toMillis();
+            return Math.max(0, Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(untilValidMs)));
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, ItemView view, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, view, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, ItemView view, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -2,10 +2,13 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestInputDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.utils.PageCursor;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -31,9 +34,10 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestOutDto getItemRequestById(@RequestHeader(value = HEADER) long userId,
-                                                @PathVariable(value = "requestId") long requestId) {
+                                                @PathVariable(value = "requestId") long requestId,
+                                                WebRequest request) {
         log.info("получен GET запрос на получение itemRequest с id={}", requestId);
-        return itemRequestService.getItemRequestById(requestId, userId);
+        return itemRequestService.getItemRequestById(requestId, userId, request::checkNotModified);
     }
 
     @GetMapping("")
@@ -45,10 +49,16 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestOutDto> getAllItemRequests(@RequestHeader(value = HEADER) long userId,
-                                                      @RequestParam(value = "from", defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
-                                                      @RequestParam(value = "size", defaultValue = DEFAULT_SIZE) @Positive int size) {
-        log.info("получен GET запрос на показ всех вещей userId={} from={} size={}", userId, from, size);
-        return itemRequestService.getAllItemRequests(userId, from, size);
+    public ResponseEntity<List<ItemRequestOutDto>> getAllItemRequests(
+            @RequestHeader(value = HEADER) long userId,
+            @RequestParam(value = "from", defaultValue = DEFAULT_FROM) @PositiveOrZero int from,
+            @RequestParam(value = "size", defaultValue = DEFAULT_SIZE) @Positive int size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        log.info("получен GET запрос на показ всех вещей userId={} from={} size={} cursor={}",
+                userId, from, size, cursor);
+        List<ItemRequestOutDto> itemRequests =
+                itemRequestService.getAllItemRequests(userId, from, size, PageCursor.decode(cursor));
+        return PageCursor.toResponse(itemRequests, size,
+                itemRequest -> PageCursor.of(itemRequest.getCreated(), itemRequest.getId()));
     }
 }
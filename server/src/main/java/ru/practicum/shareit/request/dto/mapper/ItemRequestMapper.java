@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.dto.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.dto.mapper.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestInputDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
@@ -13,6 +14,7 @@ import java.util.List;
 public interface ItemRequestMapper {
     ItemRequestOutDto toItemRequestOutDto(ItemRequest itemRequest);
 
+    @Mapping(target = "version", ignore = true)
     ItemRequest toItemRequest(ItemRequestInputDto itemRequestInputDto);
 
 
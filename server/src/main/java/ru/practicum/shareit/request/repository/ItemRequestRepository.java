@@ -1,14 +1,26 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByRequester(User requester, PageRequest id);
+    List<ItemRequest> findAllByRequester(User requester, Pageable pageable);
 
-    List<ItemRequest> findAllByRequesterNot(User user, PageRequest created);
+    List<ItemRequest> findAllByRequesterNot(User user, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requester <> :user " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :id)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findAllByRequesterNotBefore(@Param("user") User user,
+                                                  @Param("created") LocalDateTime created,
+                                                  @Param("id") long id,
+                                                  Pageable pageable);
 }
@@ -2,15 +2,18 @@ package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.ItemRequestInputDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.utils.PageCursor;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface ItemRequestService {
     ItemRequestOutDto addItemRequest(ItemRequestInputDto itemRequestInputDto, long requesterId);
 
-    ItemRequestOutDto getItemRequestById(long requestId, long userId);
+    // null, если notModified принял ETag текущей версии: тогда вещи запроса не читаются
+    ItemRequestOutDto getItemRequestById(long requestId, long userId, Predicate<String> notModified);
 
     List<ItemRequestOutDto> getAllRequestersItemRequests(long ownerId, int from, int size);
 
-    List<ItemRequestOutDto> getAllItemRequests(long userId, int from, int size);
+    List<ItemRequestOutDto> getAllItemRequests(long userId, int from, int size, PageCursor after);
 }
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ElementNotFoundException;
 import ru.practicum.shareit.item.dto.mapper.ItemMapper;
@@ -14,13 +15,16 @@ import ru.practicum.shareit.request.dto.ItemRequestOutDto;
 import ru.practicum.shareit.request.dto.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.utils.EntityTag;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PageRequestUtil;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.groupingBy;
@@ -29,7 +33,10 @@ import static java.util.stream.Collectors.groupingBy;
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
-    private final UserRepository userRepository;
+    // совпадает с ключом курсора (created, id), по которому findAllByRequesterNotBefore продолжает выборку
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "created", "id");
+
+    private final UserExistenceCache userExistenceCache;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
@@ -38,7 +45,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional
     @Override
     public ItemRequestOutDto addItemRequest(ItemRequestInputDto itemRequestInputDto, long requesterId) {
-        User requester = findUserById(requesterId);
+        User requester = userExistenceCache.getReference(requesterId);
         ItemRequest newItemRequest = itemRequestMapper.toItemRequest(itemRequestInputDto);
         newItemRequest.setRequester(requester);
         ItemRequest addedItemRequest = itemRequestRepository.save(newItemRequest);
@@ -48,11 +55,17 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestOutDto;
     }
 
-    @Transactional(readOnly = true)
+    // тег и тело читаются из одного снимка: иначе изменение между запросами дало бы старый тег к новому телу
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     @Override
-    public ItemRequestOutDto getItemRequestById(long requestId, long userId) {
-        findUserById(userId);
+    public ItemRequestOutDto getItemRequestById(long requestId, long userId, Predicate<String> notModified) {
+        userExistenceCache.require(userId);
         ItemRequest itemRequest = findItemRequestById(requestId);
+        String eTag = EntityTag.of("request", requestId, itemRequest.getVersion(),
+                EntityTag.of(itemRepository.summarizeByRequestId(requestId)));
+        if (notModified.test(eTag)) {
+            return null;
+        }
         List<Item> allRequestsItems = findAllRequestsItems(requestId);
         ItemRequestOutDto itemRequestOutDto = itemRequestMapper.toItemRequestOutDto(itemRequest);
         itemRequestOutDto.setItems(itemMapper.mapDto(allRequestsItems));
@@ -63,9 +76,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional(readOnly = true)
     @Override
     public List<ItemRequestOutDto> getAllRequestersItemRequests(long requesterId, int from, int size) {
-        User requester = findUserById(requesterId);
+        User requester = userExistenceCache.getReference(requesterId);
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequester(
-                requester, PageRequestUtil.of(from, size, Sort.by(Sort.Direction.DESC, "created")));
+                requester, PageRequestUtil.of(from, size, NEWEST_FIRST));
         log.info("Были покащаны все {} itemRequests, для requesterId={}",
                 itemRequests.size(), requesterId);
         return getRequestsWithItems(itemRequests);
@@ -73,10 +86,18 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemRequestOutDto> getAllItemRequests(long userId, int from, int size) {
-        User user = findUserById(userId);
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterNot(
-                user, PageRequestUtil.of(from, size, Sort.by(Sort.Direction.DESC, "created")));
+    public List<ItemRequestOutDto> getAllItemRequests(long userId, int from, int size, PageCursor after) {
+        User user = userExistenceCache.getReference(userId);
+        List<ItemRequest> itemRequests;
+        if (after == null) {
+            itemRequests = itemRequestRepository.findAllByRequesterNot(
+                    user, PageRequestUtil.of(from, size, NEWEST_FIRST));
+        } else if (after.getPosition() != null) {
+            itemRequests = itemRequestRepository.findAllByRequesterNotBefore(
+                    user, after.getPosition(), after.getId(), PageRequestUtil.firstPage(size, Sort.unsorted()));
+        } else {
+            throw new IllegalArgumentException(String.format("illegal cursor: %s", after.encode()));
+        }
         log.info("Были показаны все {} itemRequests, для userId={}",
                 itemRequests.size(), userId);
         return getRequestsWithItems(itemRequests);
@@ -97,11 +118,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .collect(Collectors.toList());
     }
 
-    private User findUserById(long userId) {
-        return userRepository.findById(userId).orElseThrow(() ->
-                new ElementNotFoundException(String.format("Пользователь с id=%d не найден", userId)));
-    }
-
     private ItemRequest findItemRequestById(long requestId) {
         return itemRequestRepository.findById(requestId).orElseThrow(() ->
                 new ElementNotFoundException(String.format("itemRequest с id=%d не найден", requestId)));
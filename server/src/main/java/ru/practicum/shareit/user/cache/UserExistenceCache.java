@@ -0,0 +1,95 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.datasource.ReplicaLagWindow;
+import ru.practicum.shareit.exceptions.ElementNotFoundException;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class UserExistenceCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> existence;
+    private final ReplicaLagWindow replicaLagWindow;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              ReplicaLagWindow replicaLagWindow,
+                              @Value("${shareit.user-existence.max-size:100000}") long maxSize,
+                              @Value("${shareit.user-existence.ttl-ms:600000}") long ttlMs,
+                              @Value("${shareit.user-existence.negative-ttl-ms:30000}") long negativeTtlMs) {
+        this.userRepository = userRepository;
+        this.existence = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExistenceExpiry(TimeUnit.MILLISECONDS.toNanos(ttlMs),
+                        TimeUnit.MILLISECONDS.toNanos(negativeTtlMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, existence, "userExistence");
+        this.replicaLagWindow = replicaLagWindow;
+    }
+
+    public void require(long userId) {
+        // загрузка атомарна по ключу: инвалидация после коммита дождётся её и удалит загруженное значение
+        if (!existence.get(userId, userRepository::existsById)) {
+            throw new ElementNotFoundException(String.format("Пользователь с id=%d не найден", userId));
+        }
+    }
+
+    public User getReference(long userId) {
+        require(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    @TransactionalEventListener
+    public void onUserCreated(UserCreatedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    private void invalidate(long userId) {
+        existence.invalidate(userId);
+        // проверка в read-only транзакции могла прочитать реплику, ещё не получившую изменение
+        replicaLagWindow.repeatAfterLag(() -> existence.invalidate(userId));
+    }
+
+    private static class ExistenceExpiry implements Expiry<Long, Boolean> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        ExistenceExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Long userId, Boolean exists, long currentTime) {
+            return exists ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long userId, Boolean exists, long currentTime, long currentDuration) {
+            return expireAfterCreate(userId, exists, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long userId, Boolean exists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
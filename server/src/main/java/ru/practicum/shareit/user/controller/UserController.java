@@ -3,11 +3,13 @@ package ru.practicum.shareit.user.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.validation.Valid;
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -23,9 +25,9 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable(value = "userId") long id) {
+    public UserDto getUserById(@PathVariable(value = "userId") long id, WebRequest request) {
         log.info("Получен GET запрос на показ пользователя с id={}", id);
-        return userService.getUserById(id);
+        return userService.getUserById(id, request::checkNotModified);
     }
 
     @PatchMapping("/{userId}")
@@ -40,6 +42,13 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    @GetMapping("/ids")
+    public List<Long> getUserIds(@RequestParam(value = "after", defaultValue = "0") long after,
+                                 @RequestParam(value = "size", defaultValue = "10000") int size) {
+        log.debug("получен GET запрос на показ id пользователей после id={} size={}", after, size);
+        return userService.getUserIds(after, size);
+    }
+
     @DeleteMapping("/{userId}")
     public void deleteUserById(@PathVariable("userId") Long id) {
         log.info("получен DELETE запрос на удаление пользователя с id= {}", id);
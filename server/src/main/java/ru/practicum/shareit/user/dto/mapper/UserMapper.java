@@ -12,6 +12,7 @@ public interface UserMapper {
     UserDto toUserDto(User user);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     User toUser(UserDto userDto);
 
     List<UserDto> map(List<User> users);
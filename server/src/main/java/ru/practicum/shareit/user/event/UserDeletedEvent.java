@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserDeletedEvent {
+    private final long userId;
+}
@@ -3,15 +3,20 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
 
 public interface UserService {
     UserDto addUser(UserDto newUserDto);
 
-    UserDto getUserById(Long id);
+    // null, если notModified принял ETag текущей версии: тогда тело ответа не строится
+    UserDto getUserById(long id, Predicate<String> notModified);
 
     UserDto updateUser(long userId, UserDto userDto);
 
     Collection<UserDto> getAllUsers();
 
+    List<Long> getUserIds(long after, int size);
+
     void deleteUserById(Long id);
 }
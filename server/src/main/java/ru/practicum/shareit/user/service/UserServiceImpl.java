@@ -2,16 +2,23 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ElementNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.mapper.UserMapper;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.EntityTag;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 @Slf4j
 @Service
@@ -19,19 +26,24 @@ import java.util.Objects;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional()
     @Override
     public UserDto addUser(UserDto newUserDto) {
         User newUser = userMapper.toUser(newUserDto);
         User addedUser = userRepository.save(newUser);
+        eventPublisher.publishEvent(new UserCreatedEvent(addedUser.getId()));
         return userMapper.toUserDto(addedUser);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public UserDto getUserById(Long userId) {
+    public UserDto getUserById(long userId, Predicate<String> notModified) {
         User user = findUserById(userId);
+        if (notModified.test(EntityTag.of("user", userId, user.getVersion()))) {
+            return null;
+        }
         log.info("Показан пользователь ={}, by id={}", user, userId);
         return userMapper.toUserDto(user);
     }
@@ -42,6 +54,7 @@ public class UserServiceImpl implements UserService {
         User oldUser = findUserById(userId);
         User newUser = userMapper.toUser(userDto);
         newUser.setId(userId);
+        newUser.setVersion(oldUser.getVersion());
 
         if (Objects.isNull(newUser.getName())) {
             newUser.setName(oldUser.getName());
@@ -52,6 +65,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(newUser);
+        eventPublisher.publishEvent(new UserSavedEvent(userId));
         log.info("Пользователь ={} обновлен на нового пользователя ={}", oldUser, updatedUser);
 
         return userMapper.toUserDto(updatedUser);
@@ -65,10 +79,17 @@ public class UserServiceImpl implements UserService {
         return userMapper.map(allUsers);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<Long> getUserIds(long after, int size) {
+        return userRepository.findIdsAfter(after, PageRequest.of(0, size));
+    }
+
     @Transactional
     @Override
     public void deleteUserById(Long id) {
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
         log.info("Удален пользователь с id={}", id);
     }
 
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.utils;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class EntityTag {
+    public static String of(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-"));
+    }
+
+    public static String of(VersionSummary summary) {
+        return summary.getCount() + "." + summary.getMaxId() + "." + summary.getVersionSum();
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ru.practicum.shareit.datasource.StreamingQueries;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Content-Type выставляется только когда начинается запись: исключение, брошенное раньше
+// (например, для неизвестного владельца), обработчик ошибок ещё может отдать обычным JSON
+public class NdjsonWriter implements Closeable {
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private final ObjectWriter objectWriter;
+    private final HttpServletResponse response;
+    private JsonGenerator generator;
+
+    public NdjsonWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.response = response;
+    }
+
+    public <T> long writeAll(Stream<T> rows, Function<T, ?> mapper, Runnable afterFetch) throws IOException {
+        generator();
+        long written = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            write(mapper.apply(iterator.next()));
+            // после каждой порции, прочитанной драйвером, вызывается afterFetch
+            if (++written % StreamingQueries.FETCH_SIZE == 0) {
+                afterFetch.run();
+            }
+        }
+        return written;
+    }
+
+    public void write(Object value) throws IOException {
+        JsonGenerator generator = generator();
+        objectWriter.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+    }
+
+    private JsonGenerator generator() throws IOException {
+        if (generator == null) {
+            response.setContentType(MEDIA_TYPE);
+            generator = objectWriter.createGenerator(response.getOutputStream())
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+        return generator;
+    }
+}
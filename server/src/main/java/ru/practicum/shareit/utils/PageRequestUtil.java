@@ -1,14 +1,19 @@
 package ru.practicum.shareit.utils;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 public class PageRequestUtil {
-    public static PageRequest of(int from, int size, Sort sort) {
-        return PageRequest.of(from / size, size, sort);
+    public static Pageable of(int from, int size, Sort sort) {
+        return new OffsetPageRequest(from, size, sort);
     }
 
-    public static PageRequest of(int from, int size) {
+    public static Pageable of(int from, int size) {
         return of(from, size, Sort.unsorted());
     }
+
+    public static Pageable firstPage(int size, Sort sort) {
+        return PageRequest.of(0, size, sort);
+    }
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.utils;
+
+// сводка по набору строк, меняющаяся при добавлении строки и при любом изменении версии одной из них
+public interface VersionSummary {
+    long getCount();
+
+    long getMaxId();
+
+    long getVersionSum();
+}
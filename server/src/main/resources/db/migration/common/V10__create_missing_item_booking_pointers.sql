@@ -0,0 +1,4 @@
+INSERT INTO item_booking_pointers (item_id)
+SELECT i.id
+FROM items i
+WHERE NOT EXISTS(SELECT 1 FROM item_booking_pointers p WHERE p.item_id = i.id);
@@ -47,4 +47,4 @@ CREATE TABLE IF NOT EXISTS comments
     author_id BIGINT                                  NOT NULL REFERENCES users (id) ON DELETE RESTRICT,
     created   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
     CONSTRAINT pk_comment UNIQUE (id)
-);
\ No newline at end of file
+);
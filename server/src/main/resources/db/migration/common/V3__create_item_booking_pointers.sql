@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS item_booking_pointers
+(
+    item_id         BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+    last_booking_id BIGINT REFERENCES bookings (id) ON DELETE SET NULL,
+    next_booking_id BIGINT REFERENCES bookings (id) ON DELETE SET NULL,
+    CONSTRAINT pk_item_booking_pointers PRIMARY KEY (item_id)
+);
@@ -0,0 +1,6 @@
+ALTER TABLE items
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+        GENERATED ALWAYS AS (setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+                             setweight(to_tsvector('russian', coalesce(description, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
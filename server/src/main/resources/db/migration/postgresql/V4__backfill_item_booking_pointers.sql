@@ -0,0 +1,19 @@
+INSERT INTO item_booking_pointers (item_id, last_booking_id, next_booking_id)
+SELECT i.id,
+       (SELECT b.id
+        FROM bookings b
+        WHERE b.item_id = i.id
+          AND b.status = 'APPROVED'
+          AND b.start_date < LOCALTIMESTAMP
+        ORDER BY b.start_date DESC
+        LIMIT 1),
+       (SELECT b.id
+        FROM bookings b
+        WHERE b.item_id = i.id
+          AND b.status = 'APPROVED'
+          AND b.start_date >= LOCALTIMESTAMP
+        ORDER BY b.start_date
+        LIMIT 1)
+FROM items i
+WHERE EXISTS(SELECT 1 FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED')
+ON CONFLICT (item_id) DO NOTHING;
@@ -0,0 +1,27 @@
+-- Hibernate (pooled, блоки по 50) выдаёт id от значения последовательности - 49 до него самого:
+-- после setval(max) следующий блок начинается с max + 1, а вставки без id не пересекаются с блоками
+
+SELECT setval('users_seq', GREATEST(COALESCE((SELECT MAX(id) FROM users), 0), 1));
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+SELECT setval('requests_seq', GREATEST(COALESCE((SELECT MAX(id) FROM requests), 0), 1));
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+ALTER SEQUENCE requests_seq OWNED BY requests.id;
+
+SELECT setval('items_seq', GREATEST(COALESCE((SELECT MAX(id) FROM items), 0), 1));
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.id;
+
+SELECT setval('bookings_seq', GREATEST(COALESCE((SELECT MAX(id) FROM bookings), 0), 1));
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER SEQUENCE bookings_seq OWNED BY bookings.id;
+
+SELECT setval('comments_seq', GREATEST(COALESCE((SELECT MAX(id) FROM comments), 0), 1));
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER SEQUENCE comments_seq OWNED BY comments.id;
@@ -0,0 +1,27 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// тесты путей, которые есть только на PostgreSQL: ограничения, нативные запросы, последовательности.
+// Один контейнер на весь прогон, без Docker тесты пропускаются
+@SpringBootTest(properties = {
+        "shareit.booking-overlap.mode=constraint",
+        "shareit.item-listing.mode=projection"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        POSTGRES.start();
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+}
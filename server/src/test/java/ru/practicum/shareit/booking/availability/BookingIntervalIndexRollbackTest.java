@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BookingIntervalIndexRollbackTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rolledBackBookingsDoNotReachIndex() {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long itemId = itemService.addItem(ItemDto.builder()
+                .name("Дрель")
+                .description("Дрель")
+                .available(true)
+                .build(), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = start.plusDays(1);
+        // первая заявка загружает интервалы вещи в индекс
+        long bookingId = bookingService.addBooking(new BookingInputDto(start, end, itemId), bookerId).getId();
+        assertThat(bookingIntervalIndex.isBooked(itemId, start, end, EnumSet.of(Status.WAITING))).isTrue();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.addBooking(new BookingInputDto(end.plusDays(1), end.plusDays(2), itemId), bookerId);
+            bookingService.updateBooking(bookingId, ownerId, true);
+            status.setRollbackOnly();
+        });
+
+        assertThat(bookingIntervalIndex.isBooked(itemId, end.plusDays(1), end.plusDays(2),
+                BookingIntervalIndex.ACTIVE_STATUSES)).isFalse();
+        assertThat(bookingIntervalIndex.isBooked(itemId, start, end, EnumSet.of(Status.APPROVED))).isFalse();
+
+        bookingService.updateBooking(bookingId, ownerId, true);
+        assertThat(bookingIntervalIndex.isBooked(itemId, start, end, EnumSet.of(Status.APPROVED))).isTrue();
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(UserDto.builder()
+                .name(name)
+                .email(name + "-" + UUID.randomUUID() + "@example.com")
+                .build()).getId();
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingSavedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+    private static final Set<Status> APPROVED = EnumSet.of(Status.APPROVED);
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+    private static final LocalDateTime END = START.plusDays(2);
+
+    private BookingRepository bookingRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findAllByItem_IdAndEndAfterAndStatusIn(anyLong(), any(), any()))
+                .thenReturn(new ArrayList<>());
+        meterRegistry = new SimpleMeterRegistry();
+        index = new BookingIntervalIndex(bookingRepository, meterRegistry, 2);
+    }
+
+    @Test
+    void loadsItemOnceAndThenServesFromMemory() {
+        when(bookingRepository.findAllByItem_IdAndEndAfterAndStatusIn(eq(1L), any(), any()))
+                .thenReturn(List.of(new Booking(10, START, END, null, null, Status.APPROVED)));
+
+        assertThat(index.isBooked(1, START.plusDays(1), END.plusDays(1), APPROVED)).isTrue();
+        assertThat(index.isBooked(1, END, END.plusDays(1), APPROVED)).isFalse();
+
+        verify(bookingRepository, times(1)).findAllByItem_IdAndEndAfterAndStatusIn(eq(1L), any(), any());
+        assertThat(requests("miss")).isEqualTo(1);
+        assertThat(requests("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void committedChangesOfCachedItemAreApplied() {
+        index.isBooked(1, START, END, APPROVED);
+
+        index.onBookingSaved(new BookingSavedEvent(10, 1, START, END, Status.APPROVED));
+        assertThat(index.isBooked(1, START, END, APPROVED)).isTrue();
+
+        index.onBookingSaved(new BookingSavedEvent(10, 1, START, END, Status.REJECTED));
+        assertThat(index.isBooked(1, START, END, APPROVED)).isFalse();
+        verify(bookingRepository, times(1)).findAllByItem_IdAndEndAfterAndStatusIn(eq(1L), any(), any());
+    }
+
+    @Test
+    void loadRacingWithCommitIsNotCached() {
+        // бронирование коммитится, пока интервалы вещи читаются: выборка могла его не увидеть
+        when(bookingRepository.findAllByItem_IdAndEndAfterAndStatusIn(eq(1L), any(), any()))
+                .thenAnswer(invocation -> {
+                    index.onBookingSaved(new BookingSavedEvent(10, 1, START, END, Status.APPROVED));
+                    return new ArrayList<>();
+                })
+                .thenReturn(List.of(new Booking(10, START, END, null, null, Status.APPROVED)));
+
+        assertThat(index.isBooked(1, START, END, APPROVED)).isFalse();
+        assertThat(index.isBooked(1, START, END, APPROVED)).isTrue();
+
+        verify(bookingRepository, times(2)).findAllByItem_IdAndEndAfterAndStatusIn(eq(1L), any(), any());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedItem() {
+        index.isBooked(1, START, END, APPROVED);
+        index.isBooked(2, START, END, APPROVED);
+        index.isBooked(1, START, END, APPROVED);
+        index.isBooked(3, START, END, APPROVED);
+
+        index.isBooked(1, START, END, APPROVED);
+        index.isBooked(2, START, END, APPROVED);
+
+        verify(bookingRepository, times(1)).findAllByItem_IdAndEndAfterAndStatusIn(eq(1L), any(), any());
+        verify(bookingRepository, times(2)).findAllByItem_IdAndEndAfterAndStatusIn(eq(2L), any(), any());
+        assertThat(meterRegistry.get("shareit.booking.intervals.items").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void changesOfUncachedItemsAreLeftToNextLoad() {
+        index.onBookingSaved(new BookingSavedEvent(10, 1, START, END, Status.APPROVED));
+
+        assertThat(index.isBooked(1, START, END, APPROVED)).isFalse();
+        assertThat(meterRegistry.get("shareit.booking.intervals.items").gauge().value()).isEqualTo(1);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("shareit.booking.intervals.requests").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingIntervalsTest {
+    private static final LocalDateTime DAY_0 = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private static final Set<Status> APPROVED = EnumSet.of(Status.APPROVED);
+    private static final Set<Status> ACTIVE = EnumSet.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingIntervals intervals = new BookingIntervals();
+
+    @Test
+    void findsLongIntervalThatStartedWellBeforeQuery() {
+        intervals.put(1, day(0), day(10), Status.APPROVED);
+        intervals.put(2, day(6), day(7), Status.APPROVED);
+
+        assertThat(intervals.overlaps(day(8), day(9), APPROVED)).isTrue();
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        intervals.put(1, day(0), day(10), Status.APPROVED);
+
+        assertThat(intervals.overlaps(day(10), day(11), APPROVED)).isFalse();
+        assertThat(intervals.overlaps(day(-1), day(0), APPROVED)).isFalse();
+        assertThat(intervals.overlaps(day(-1), day(0).plusMinutes(1), APPROVED)).isTrue();
+    }
+
+    @Test
+    void matchesOnlyRequestedStatuses() {
+        intervals.put(1, day(0), day(2), Status.WAITING);
+
+        assertThat(intervals.overlaps(day(1), day(3), APPROVED)).isFalse();
+        assertThat(intervals.overlaps(day(1), day(3), ACTIVE)).isTrue();
+    }
+
+    @Test
+    void putReplacesIntervalOfSameBooking() {
+        intervals.put(1, day(0), day(2), Status.WAITING);
+        intervals.put(1, day(5), day(6), Status.APPROVED);
+
+        assertThat(intervals.size()).isEqualTo(1);
+        assertThat(intervals.overlaps(day(0), day(2), ACTIVE)).isFalse();
+        assertThat(intervals.overlaps(day(5), day(6), APPROVED)).isTrue();
+    }
+
+    @Test
+    void removedIntervalNoLongerOverlaps() {
+        intervals.put(1, day(0), day(10), Status.APPROVED);
+        intervals.remove(1);
+
+        assertThat(intervals.overlaps(day(8), day(9), ACTIVE)).isFalse();
+        assertThat(intervals.size()).isZero();
+    }
+
+    @Test
+    void pruneDropsOnlyEndedIntervals() {
+        intervals.put(1, day(0), day(2), Status.APPROVED);
+        intervals.put(2, day(1), day(8), Status.APPROVED);
+        intervals.put(3, day(6), day(7), Status.APPROVED);
+
+        intervals.pruneEndedBefore(day(5));
+
+        assertThat(intervals.size()).isEqualTo(2);
+        assertThat(intervals.overlaps(day(0), day(1), APPROVED)).isFalse();
+        assertThat(intervals.overlaps(day(4), day(5), APPROVED)).isTrue();
+    }
+
+    private static LocalDateTime day(int day) {
+        return DAY_0.plusDays(day);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.NdjsonWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingControllerTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void ownerExportWritesOneBookingPerLine() throws Exception {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long itemId = itemService.addItem(ItemDto.builder()
+                .name("Дрель")
+                .description("Дрель")
+                .available(true)
+                .build(), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bookingIds.add(bookingService.addBooking(
+                    new BookingInputDto(start.plusDays(2 * i), start.plusDays(2 * i + 1), itemId), bookerId).getId());
+        }
+
+        String body = mvc.perform(get("/bookings/owner/export").header(HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NdjsonWriter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body).endsWith("\n");
+        List<Long> exportedIds = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode booking = objectMapper.readTree(line);
+            assertThat(booking.isObject()).isTrue();
+            assertThat(booking.path("item").path("id").asLong()).isEqualTo(itemId);
+            assertThat(booking.path("booker").path("id").asLong()).isEqualTo(bookerId);
+            assertThat(booking.path("status").asText()).isEqualTo("WAITING");
+            exportedIds.add(booking.path("id").asLong());
+        }
+        assertThat(exportedIds).isEqualTo(bookingIds);
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(UserDto.builder()
+                .name(name)
+                .email(name + "-" + UUID.randomUUID() + "@example.com")
+                .build()).getId();
+    }
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.controller.State;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.PageCursor;
+import ru.practicum.shareit.utils.PageRequestUtil;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingRepositoryTest {
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(user("owner"));
+        booker = em.persist(user("booker"));
+        User requester = em.persist(user("requester"));
+        ItemRequest request = new ItemRequest();
+        request.setDescription("нужна дрель");
+        request.setRequester(requester);
+        em.persist(request);
+
+        Item drill = em.persist(item("Дрель", request));
+        Item saw = em.persist(item("Пила", null));
+        for (int i = 0; i < 5; i++) {
+            em.persist(booking(i % 2 == 0 ? drill : saw, NOW.plusDays(i), NOW.plusDays(i + 1), Status.WAITING));
+        }
+        em.flush();
+        em.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void bookerPageLoadsItemRequestAndBookerInOneStatement() {
+        List<Booking> page = bookingRepository.findAllByBooker_Id(booker.getId(),
+                PageRequestUtil.of(0, 10, NEWEST_FIRST));
+
+        assertThat(page).hasSize(5);
+        touchAssociations(page);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ownerPageLoadsItemRequestAndBookerInOneStatement() {
+        List<Booking> page = bookingRepository.findAllByItemOwnerIdAndStatus(owner.getId(), Status.WAITING,
+                PageRequestUtil.of(1, 3, NEWEST_FIRST));
+
+        assertThat(page).hasSize(3);
+        touchAssociations(page);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cursorPageLoadsItemRequestAndBookerInOneStatement() {
+        List<Booking> page = bookingRepository.findAllAfter(
+                BookingSpecifications.ofItemsOwnedBy(owner.getId()).and(BookingSpecifications.inState(State.ALL, NOW)),
+                PageCursor.of(NOW.plusDays(4), Long.MAX_VALUE),
+                10);
+
+        assertThat(page).hasSize(5);
+        touchAssociations(page);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cursorContinuesAfterLastRowOfOffsetPage() {
+        List<Booking> firstPage = bookingRepository.findAllByBooker_Id(booker.getId(),
+                PageRequestUtil.of(0, 2, NEWEST_FIRST));
+        Booking last = firstPage.get(firstPage.size() - 1);
+
+        List<Booking> nextPage = bookingRepository.findAllAfter(BookingSpecifications.bookedBy(booker.getId()),
+                PageCursor.of(last.getStart(), last.getId()), 10);
+
+        assertThat(nextPage).extracting(Booking::getStart)
+                .containsExactly(NOW.plusDays(2), NOW.plusDays(1), NOW);
+    }
+
+    @Test
+    void findItemIdsBookedBetweenReturnsItemsWithOverlappingApprovedBookings() {
+        Item booked = em.persist(item("Перфоратор", null));
+        Item waiting = em.persist(item("Шуруповёрт", null));
+        Item endsAtStart = em.persist(item("Лампа", null));
+        Item startsAtEnd = em.persist(item("Молоток", null));
+        Item notRequested = em.persist(item("Лобзик", null));
+        em.persist(booking(booked, NOW.plusDays(10), NOW.plusDays(12), Status.APPROVED));
+        em.persist(booking(waiting, NOW.plusDays(10), NOW.plusDays(12), Status.WAITING));
+        em.persist(booking(endsAtStart, NOW.plusDays(9), NOW.plusDays(11), Status.APPROVED));
+        em.persist(booking(startsAtEnd, NOW.plusDays(12), NOW.plusDays(14), Status.APPROVED));
+        em.persist(booking(notRequested, NOW.plusDays(10), NOW.plusDays(12), Status.APPROVED));
+        em.flush();
+
+        List<Long> bookedIds = bookingRepository.findItemIdsBookedBetween(
+                List.of(booked.getId(), waiting.getId(), endsAtStart.getId(), startsAtEnd.getId()),
+                NOW.plusDays(11),
+                NOW.plusDays(12));
+
+        assertThat(bookedIds).containsExactly(booked.getId());
+    }
+
+    private void touchAssociations(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            assertThat(booking.getItem().getName()).isNotNull();
+            assertThat(booking.getBooker().getName()).isEqualTo("booker");
+            if (booking.getItem().getRequest() != null) {
+                assertThat(booking.getItem().getRequest().getDescription()).isEqualTo("нужна дрель");
+            }
+        }
+    }
+
+    private User user(String name) {
+        return User.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .build();
+    }
+
+    private Item item(String name, ItemRequest request) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        return item;
+    }
+
+    private Booking booking(Item item, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.PostgresIntegrationTest;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.NotAvailableException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingOverlapConstraintTest extends PostgresIntegrationTest {
+    private static final int APPROVERS = 16;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApprovalOverlapGuard approvalOverlapGuard;
+
+    @Test
+    void postgresReliesOnExclusionConstraint() {
+        assertThat(approvalOverlapGuard).isInstanceOf(ExclusionConstraintOverlapGuard.class);
+    }
+
+    @Test
+    void exclusionViolationIsReportedAsNotAvailable() {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long itemId = addItem(ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        long approvedElsewhere = bookingService.addBooking(
+                new BookingInputDto(start, start.plusDays(2), itemId), bookerId).getId();
+        long overlapping = bookingService.addBooking(
+                new BookingInputDto(start.plusDays(1), start.plusDays(3), itemId), bookerId).getId();
+        // подтверждение мимо сервиса, как с другого экземпляра: индекс в памяти о нём не знает
+        jdbcTemplate.update("UPDATE bookings SET status = 'APPROVED' WHERE id = ?", approvedElsewhere);
+
+        assertThatThrownBy(() -> bookingService.updateBooking(overlapping, ownerId, true))
+                .isInstanceOf(NotAvailableException.class);
+        assertThat(bookingRepository.findById(overlapping)).get()
+                .extracting(Booking::getStatus)
+                .isEqualTo(Status.WAITING);
+    }
+
+    @Test
+    void onlyOneOfConcurrentOverlappingApprovalsSucceeds() throws Exception {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long itemId = addItem(ownerId);
+        // сутки с шагом в час: любые два бронирования пересекаются
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < APPROVERS; i++) {
+            bookingIds.add(bookingService.addBooking(
+                    new BookingInputDto(start.plusHours(i), start.plusHours(i).plusDays(1), itemId), bookerId).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(APPROVERS);
+        CountDownLatch ready = new CountDownLatch(APPROVERS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> approvals = new ArrayList<>();
+        try {
+            for (long bookingId : bookingIds) {
+                approvals.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    try {
+                        bookingService.updateBooking(bookingId, ownerId, true);
+                        return true;
+                    } catch (NotAvailableException e) {
+                        return false;
+                    }
+                }));
+            }
+            ready.await();
+            go.countDown();
+            int approved = 0;
+            for (Future<Boolean> approval : approvals) {
+                if (approval.get(30, TimeUnit.SECONDS)) {
+                    approved++;
+                }
+            }
+
+            assertThat(approved).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings b1 JOIN bookings b2 " +
+                    "ON b1.item_id = b2.item_id AND b1.id < b2.id " +
+                    "AND b1.start_date < b2.end_date AND b2.start_date < b1.end_date " +
+                    "WHERE b1.status = 'APPROVED' AND b2.status = 'APPROVED' AND b1.item_id = ?",
+                    Long.class, itemId)).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long addItem(long ownerId) {
+        return itemService.addItem(ItemDto.builder()
+                .name("Дрель")
+                .description("Дрель")
+                .available(true)
+                .build(), ownerId).getId();
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(UserDto.builder()
+                .name(name)
+                .email(name + "-" + UUID.randomUUID() + "@example.com")
+                .build()).getId();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReplicaPoolTest {
+    private HikariDataSource primary;
+    private ReplicaPool replicaPool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = new HikariDataSource();
+        primary.setJdbcUrl("jdbc:h2:mem:replica-pool-primary;DB_CLOSE_DELAY=-1");
+        primary.setDriverClassName("org.h2.Driver");
+        primary.setUsername("sa");
+        primary.setPassword("");
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS route (name VARCHAR(16))");
+            statement.execute("DELETE FROM route");
+            statement.execute("INSERT INTO route (name) VALUES ('primary')");
+        }
+
+        // в H2 нет функций репликации PostgreSQL: проверка отставания падает и реплика исключается
+        DataSourceRoutingProperties.Replica replica = new DataSourceRoutingProperties.Replica();
+        replica.setUrl("jdbc:h2:mem:replica-pool-replica;DB_CLOSE_DELAY=-1");
+        DataSourceRoutingProperties properties = new DataSourceRoutingProperties();
+        properties.setEnabled(true);
+        properties.setReplicas(List.of(replica));
+        replicaPool = new ReplicaPool(primary, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaPool.close();
+        primary.close();
+    }
+
+    @Test
+    void fallsBackToReadOnlyPrimaryWithoutHealthyReplica() throws SQLException {
+        try (Connection connection = replicaPool.getConnection()) {
+            assertThat(connection.isReadOnly()).isTrue();
+            assertThat(route(connection)).isEqualTo("primary");
+        }
+    }
+
+    @Test
+    void keepsFallingBackAfterHealthCheck() throws SQLException {
+        replicaPool.checkReplicas();
+
+        try (Connection connection = replicaPool.getConnection()) {
+            assertThat(route(connection)).isEqualTo("primary");
+        }
+    }
+
+    @Test
+    void primaryConnectionIsWritableAgainAfterFallback() throws SQLException {
+        try (Connection connection = replicaPool.getConnection()) {
+            assertThat(connection.isReadOnly()).isTrue();
+        }
+
+        try (Connection connection = primary.getConnection()) {
+            assertThat(connection.isReadOnly()).isFalse();
+        }
+    }
+
+    @Test
+    void rejectsConnectionsForOtherUsers() {
+        assertThatThrownBy(() -> replicaPool.getConnection("other", "secret"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static String route(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM route")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionRoutingDataSourceTest {
+    private static final String ROUTE_QUERY = "SELECT name FROM route";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        // тот же порядок обёрток, что и в DataSourceRoutingConfig
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new TransactionRoutingDataSource(database("primary"), database("replica")));
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionReadsFromReplica() {
+        assertThat(readOnly.execute(status -> route())).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        assertThat(readWrite.execute(status -> route())).isEqualTo("primary");
+    }
+
+    @Test
+    void queryOutsideTransactionUsesPrimary() {
+        assertThat(route()).isEqualTo("primary");
+    }
+
+    @Test
+    void routeIsChosenPerTransaction() {
+        assertThat(readOnly.execute(status -> route())).isEqualTo("replica");
+        assertThat(readWrite.execute(status -> route())).isEqualTo("primary");
+        assertThat(readOnly.execute(status -> route())).isEqualTo("replica");
+    }
+
+    private String route() {
+        return jdbcTemplate.queryForObject(ROUTE_QUERY, String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS route (name VARCHAR(16))");
+        jdbcTemplate.execute("DELETE FROM route");
+        jdbcTemplate.update("INSERT INTO route (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
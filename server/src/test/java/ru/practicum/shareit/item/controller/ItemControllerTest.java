@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemBookingPointers;
+import ru.practicum.shareit.item.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.NdjsonWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemControllerTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final TypeReference<List<ItemDto>> ITEMS_TYPE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemBookingPointersRepository pointersRepository;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Test
+    void batchCreatesPointersAndIndexEntries() throws Exception {
+        long ownerId = addUser("owner");
+        List<ItemDto> batch = List.of(
+                ItemDto.builder().name("Перфоратор").description("Ударный перфоратор").available(true).build(),
+                ItemDto.builder().name("Перфоратор").description("Лёгкий перфоратор").available(true).build(),
+                ItemDto.builder().id(1).name("Перфоратор").description("Сломанный перфоратор").available(false)
+                        .build());
+
+        String response = mvc.perform(post("/items/batch")
+                        .header(HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<ItemDto> added = objectMapper.readValue(response, ITEMS_TYPE);
+        List<Long> ids = added.stream().map(ItemDto::getId).collect(Collectors.toList());
+
+        assertThat(added).extracting(ItemDto::getDescription)
+                .containsExactly("Ударный перфоратор", "Лёгкий перфоратор", "Сломанный перфоратор");
+        assertThat(ids).doesNotHaveDuplicates().doesNotContain(0L);
+        assertThat(pointersRepository.findAllByItemIdIn(ids))
+                .extracting(ItemBookingPointers::getItemId)
+                .containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(itemSearchIndex.search("перфоратор", 0, 1000))
+                .contains(ids.get(0), ids.get(1))
+                .doesNotContain(ids.get(2));
+    }
+
+    @Test
+    void exportWritesOneItemPerLine() throws Exception {
+        long ownerId = addUser("owner");
+        List<ItemDto> added = itemService.addItems(List.of(
+                ItemDto.builder().name("Дрель").description("Дрель").available(true).build(),
+                ItemDto.builder().name("Пила").description("Пила").available(false).build()), ownerId);
+
+        String body = mvc.perform(get("/items/export").header(HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NdjsonWriter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        // по одному компактному JSON-объекту на строку, без обрамляющего массива
+        assertThat(body).endsWith("\n");
+        List<String> lines = body.lines().collect(Collectors.toList());
+        assertThat(lines).hasSize(2).allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"));
+        assertThat(objectMapper.readValue("[" + String.join(",", lines) + "]", ITEMS_TYPE))
+                .containsExactlyElementsOf(added);
+    }
+
+    @Test
+    void exportForUnknownOwnerIsNotFound() throws Exception {
+        long unknownOwnerId = Long.MAX_VALUE;
+
+        mvc.perform(get("/items/export").header(HEADER, unknownOwnerId))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value(
+                        String.format("Пользователь с id=%d не найден", unknownOwnerId)));
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(UserDto.builder()
+                .name(name)
+                .email(name + "-" + UUID.randomUUID() + "@example.com")
+                .build()).getId();
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.listing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.dto.CommentInputDto;
+import ru.practicum.shareit.item.comment.dto.CommentOutputDto;
+import ru.practicum.shareit.item.comment.dto.mapper.CommentMapper;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithCommentsOutputDto;
+import ru.practicum.shareit.item.dto.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAssemblyExecutor;
+import ru.practicum.shareit.item.service.ItemBookingPointersService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EntityOwnerItemListingTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemMapper itemMapper;
+    @Autowired
+    private CommentMapper commentMapper;
+    @Autowired
+    private ItemBookingPointersService itemBookingPointersService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void forkedAssemblyMatchesInlineAssembly() {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long drillId = addItem("Дрель", ownerId);
+        long sawId = addItem("Пила", ownerId);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        long lastBookingId = addApprovedBooking(drillId, ownerId, bookerId, now.minusDays(3), now.minusDays(2));
+        long nextBookingId = addApprovedBooking(drillId, ownerId, bookerId, now.plusDays(2), now.plusDays(3));
+        itemService.addComment(new CommentInputDto("Хорошая дрель"), drillId, bookerId);
+
+        SimpleMeterRegistry forkedRegistry = new SimpleMeterRegistry();
+        SimpleMeterRegistry inlineRegistry = new SimpleMeterRegistry();
+        List<ItemWithCommentsOutputDto> forked = findOwnerItems(ownerId, forkedRegistry, 4);
+        List<ItemWithCommentsOutputDto> inline = findOwnerItems(ownerId, inlineRegistry, 0);
+
+        assertThat(forkedRegistry.counter("shareit.item-assembly.inline").count()).isZero();
+        assertThat(inlineRegistry.counter("shareit.item-assembly.inline").count()).isEqualTo(1);
+        assertThat(forked).isEqualTo(inline);
+        assertThat(forked).extracting(ItemWithCommentsOutputDto::getId).containsExactly(drillId, sawId);
+
+        ItemWithCommentsOutputDto drill = forked.get(0);
+        assertThat(drill.getLastBooking()).extracting(BookingForItemDto::getId).isEqualTo(lastBookingId);
+        assertThat(drill.getNextBooking()).extracting(BookingForItemDto::getId).isEqualTo(nextBookingId);
+        assertThat(drill.getComments()).extracting(CommentOutputDto::getText).containsExactly("Хорошая дрель");
+        ItemWithCommentsOutputDto saw = forked.get(1);
+        assertThat(saw.getLastBooking()).isNull();
+        assertThat(saw.getNextBooking()).isNull();
+        assertThat(saw.getComments()).isNullOrEmpty();
+    }
+
+    // вызов внутри транзакции, как из сервиса: у вызывающего потока своя открытая сессия
+    private List<ItemWithCommentsOutputDto> findOwnerItems(long ownerId, SimpleMeterRegistry registry, int threads) {
+        ItemAssemblyExecutor executor = new ItemAssemblyExecutor(transactionManager, registry, threads);
+        try {
+            EntityOwnerItemListing listing = new EntityOwnerItemListing(itemRepository, commentRepository,
+                    itemMapper, commentMapper, itemBookingPointersService, executor);
+            return transactionTemplate.execute(status ->
+                    listing.findOwnerItems(userRepository.getReferenceById(ownerId), 0, 10, null));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long addApprovedBooking(long itemId, long ownerId, long bookerId,
+                                    LocalDateTime start, LocalDateTime end) {
+        long bookingId = bookingService.addBooking(new BookingInputDto(start, end, itemId), bookerId).getId();
+        bookingService.updateBooking(bookingId, ownerId, true);
+        return bookingId;
+    }
+
+    private long addItem(String name, long ownerId) {
+        return itemService.addItem(ItemDto.builder()
+                .name(name)
+                .description(name)
+                .available(true)
+                .build(), ownerId).getId();
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(UserDto.builder()
+                .name(name)
+                .email(name + "-" + UUID.randomUUID() + "@example.com")
+                .build()).getId();
+    }
+}
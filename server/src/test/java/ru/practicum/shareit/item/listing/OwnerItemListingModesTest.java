@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item.listing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.PostgresIntegrationTest;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.dto.CommentInputDto;
+import ru.practicum.shareit.item.comment.dto.mapper.CommentMapper;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithCommentsOutputDto;
+import ru.practicum.shareit.item.dto.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAssemblyExecutor;
+import ru.practicum.shareit.item.service.ItemBookingPointersService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.PageCursor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OwnerItemListingModesTest extends PostgresIntegrationTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemMapper itemMapper;
+    @Autowired
+    private CommentMapper commentMapper;
+    @Autowired
+    private ItemBookingPointersService itemBookingPointersService;
+    @Autowired
+    private ItemAssemblyExecutor itemAssemblyExecutor;
+    @Autowired
+    private OwnerItemListing ownerItemListing;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void projectionMatchesEntityListing() throws Exception {
+        long ownerId = addUser("owner");
+        long bookerId = addUser("booker");
+        long drillId = addItem("Дрель", ownerId);
+        long sawId = addItem("Пила", ownerId);
+        long ladderId = addItem("Лестница", ownerId);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        addApprovedBooking(drillId, ownerId, bookerId, now.minusDays(5), now.minusDays(4));
+        addApprovedBooking(drillId, ownerId, bookerId, now.minusDays(3), now.minusDays(2));
+        addApprovedBooking(drillId, ownerId, bookerId, now.plusDays(2), now.plusDays(3));
+        addApprovedBooking(sawId, ownerId, bookerId, now.plusDays(4), now.plusDays(5));
+        bookingService.addBooking(new BookingInputDto(now.plusDays(1), now.plusDays(2), sawId), bookerId);
+        long wholeSecondComment = itemService.addComment(new CommentInputDto("Хорошая дрель"), drillId, bookerId)
+                .getId();
+        itemService.addComment(new CommentInputDto("Тяжёлая"), drillId, bookerId);
+        // PostgreSQL отбрасывает нулевые доли секунды в json, Hibernate читает то же значение из столбца
+        jdbcTemplate.update("UPDATE comments SET created = ? WHERE id = ?", now.minusHours(1), wholeSecondComment);
+
+        EntityOwnerItemListing entityListing = new EntityOwnerItemListing(itemRepository, commentRepository,
+                itemMapper, commentMapper, itemBookingPointersService, itemAssemblyExecutor);
+        assertThat(ownerItemListing).isInstanceOf(ProjectionOwnerItemListing.class);
+
+        List<ItemWithCommentsOutputDto> projected = findOwnerItems(ownerItemListing, ownerId, 0, 10, null);
+        List<ItemWithCommentsOutputDto> entities = findOwnerItems(entityListing, ownerId, 0, 10, null);
+        assertThat(projected).extracting(ItemWithCommentsOutputDto::getId).containsExactly(drillId, sawId, ladderId);
+        assertThat(objectMapper.writeValueAsString(projected)).isEqualTo(objectMapper.writeValueAsString(entities));
+        assertThat(projected.get(0).getComments()).hasSize(2);
+        assertThat(projected.get(0).getComments().get(0).getCreated()).isEqualTo(now.minusHours(1));
+        assertThat(projected.get(1).getLastBooking()).isNull();
+        assertThat(projected.get(1).getNextBooking()).isNotNull();
+        assertThat(projected.get(2).getLastBooking()).isNull();
+        assertThat(projected.get(2).getNextBooking()).isNull();
+        assertThat(projected.get(2).getComments()).isNull();
+
+        assertThat(findOwnerItems(ownerItemListing, ownerId, 1, 1, null))
+                .isEqualTo(findOwnerItems(entityListing, ownerId, 1, 1, null))
+                .extracting(ItemWithCommentsOutputDto::getId).containsExactly(sawId);
+        PageCursor afterDrill = PageCursor.of(drillId);
+        assertThat(findOwnerItems(ownerItemListing, ownerId, 0, 10, afterDrill))
+                .isEqualTo(findOwnerItems(entityListing, ownerId, 0, 10, afterDrill))
+                .extracting(ItemWithCommentsOutputDto::getId).containsExactly(sawId, ladderId);
+    }
+
+    private List<ItemWithCommentsOutputDto> findOwnerItems(OwnerItemListing listing, long ownerId,
+                                                           int from, int size, PageCursor after) {
+        return transactionTemplate.execute(status -> {
+            User owner = userRepository.getReferenceById(ownerId);
+            return listing.findOwnerItems(owner, from, size, after);
+        });
+    }
+
+    private void addApprovedBooking(long itemId, long ownerId, long bookerId,
+                                    LocalDateTime start, LocalDateTime end) {
+        long bookingId = bookingService.addBooking(new BookingInputDto(start, end, itemId), bookerId).getId();
+        bookingService.updateBooking(bookingId, ownerId, true);
+    }
+
+    private long addItem(String name, long ownerId) {
+        return itemService.addItem(ItemDto.builder()
+                .name(name)
+                .description(name)
+                .available(true)
+                .build(), ownerId).getId();
+    }
+
+    private long addUser(String name) {
+        return userService.addUser(UserDto.builder()
+                .name(name)
+                .email(name + "-" + UUID.randomUUID() + "@example.com")
+                .build()).getId();
+    }
+}
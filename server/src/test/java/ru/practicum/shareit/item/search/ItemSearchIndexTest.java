@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ItemSearchIndexTest {
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(mock(ItemRepository.class));
+    }
+
+    @Test
+    void searchRanksNameMatchesAboveDescriptionMatches() {
+        index.index(new ItemSavedEvent(1, "Отвёртка", "Подходит к дрели", true));
+        index.index(new ItemSavedEvent(2, "Дрель", "Аккумуляторная дрель", true));
+
+        assertThat(index.search("дрель", 0, 10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void searchMatchesTermsByPrefix() {
+        index.index(new ItemSavedEvent(1, "Перфоратор", "Мощный", true));
+
+        assertThat(index.search("перфо", 0, 10)).containsExactly(1L);
+    }
+
+    @Test
+    void searchRequiresEveryQueryTerm() {
+        index.index(new ItemSavedEvent(1, "Дрель", "Аккумуляторная дрель", true));
+        index.index(new ItemSavedEvent(2, "Дрель", "Сетевая дрель", true));
+
+        assertThat(index.search("аккумуляторная дрель", 0, 10)).containsExactly(1L);
+        assertThat(index.search("дрель пила", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchBreaksScoreTiesById() {
+        index.index(new ItemSavedEvent(5, "Молоток", "Молоток", true));
+        index.index(new ItemSavedEvent(4, "Молоток", "Молоток", true));
+        index.index(new ItemSavedEvent(6, "Молоток", "Молоток", true));
+
+        assertThat(index.search("молоток", 0, 10)).containsExactly(4L, 5L, 6L);
+        assertThat(index.search("молоток", 1, 1)).containsExactly(5L);
+        assertThat(index.search("молоток", 3, 10)).isEmpty();
+    }
+
+    @Test
+    void searchPagesFollowFullRanking() {
+        // у каждой третьей вещи совпадение в названии, у остальных — только в описании
+        for (long id = 1; id <= 200; id++) {
+            index.index(id % 3 == 0
+                    ? new ItemSavedEvent(id, "Дрель", "Инструмент", true)
+                    : new ItemSavedEvent(id, "Инструмент", "Дрель", true));
+        }
+        List<Long> ranking = Stream.concat(
+                        LongStream.rangeClosed(1, 200).filter(id -> id % 3 == 0).boxed(),
+                        LongStream.rangeClosed(1, 200).filter(id -> id % 3 != 0).boxed())
+                .collect(Collectors.toList());
+
+        assertThat(index.search("дрель", 0, 10)).isEqualTo(ranking.subList(0, 10));
+        assertThat(index.search("дрель", 60, 10)).isEqualTo(ranking.subList(60, 70));
+        assertThat(index.search("дрель", 195, 10)).isEqualTo(ranking.subList(195, 200));
+        assertThat(index.search("дрель", 0, Integer.MAX_VALUE)).isEqualTo(ranking);
+        assertThat(index.search("дрель", 10, 0)).isEmpty();
+    }
+
+    @Test
+    void searchSkipsUnavailableItems() {
+        index.index(new ItemSavedEvent(1, "Дрель", "Дрель", false));
+
+        assertThat(index.search("дрель", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void indexReplacesTermsOfUpdatedItem() {
+        index.index(new ItemSavedEvent(1, "Дрель", "Дрель", true));
+        index.index(new ItemSavedEvent(1, "Пила", "Ручная пила", true));
+
+        assertThat(index.search("дрель", 0, 10)).isEmpty();
+        assertThat(index.search("пила", 0, 10)).containsExactly(1L);
+    }
+
+    @Test
+    void indexRemovesItemThatBecameUnavailable() {
+        index.index(new ItemSavedEvent(1, "Дрель", "Дрель", true));
+        index.index(new ItemSavedEvent(1, "Дрель", "Дрель", false));
+
+        assertThat(index.search("дрель", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchReturnsNothingForQueryWithoutTerms() {
+        index.index(new ItemSavedEvent(1, "Дрель", "Дрель", true));
+
+        assertThat(index.search("", 0, 10)).isEmpty();
+        assertThat(index.search("?!", 0, 10)).isEmpty();
+    }
+}
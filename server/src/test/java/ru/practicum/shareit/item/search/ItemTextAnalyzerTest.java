@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemTextAnalyzerTest {
+
+    @Test
+    void analyzeReturnsNoTermsForNull() {
+        assertThat(ItemTextAnalyzer.analyze(null)).isEmpty();
+    }
+
+    @Test
+    void analyzeMapsRussianWordFormsToOneTerm() {
+        assertThat(ItemTextAnalyzer.analyze("Дрель")).containsExactly("дрел");
+        assertThat(ItemTextAnalyzer.analyze("дрели")).containsExactly("дрел");
+        assertThat(ItemTextAnalyzer.analyze("ДРЕЛЬЮ")).containsExactly("дрел");
+    }
+
+    @Test
+    void analyzeTreatsYoAsYe() {
+        assertThat(ItemTextAnalyzer.analyze("Ёлка")).isEqualTo(ItemTextAnalyzer.analyze("елка"));
+    }
+
+    @Test
+    void analyzeSplitsOnEverythingButLettersAndDigits() {
+        assertThat(ItemTextAnalyzer.analyze("  Дрель-перфоратор, 1500W!"))
+                .containsExactly("дрел", "перфоратор", "1500w");
+    }
+
+    @Test
+    void analyzeReturnsNoTermsForDelimitersOnly() {
+        assertThat(ItemTextAnalyzer.analyze(" ,.-!? ")).isEmpty();
+    }
+
+    @Test
+    void stemStripsEnglishSuffixes() {
+        assertThat(ItemTextAnalyzer.stem("drills")).isEqualTo("drill");
+        assertThat(ItemTextAnalyzer.stem("drilling")).isEqualTo("drill");
+        assertThat(ItemTextAnalyzer.stem("batteries")).isEqualTo("batter");
+    }
+
+    @Test
+    void stemKeepsAtLeastThreeCharacters() {
+        assertThat(ItemTextAnalyzer.stem("оса")).isEqualTo("оса");
+        assertThat(ItemTextAnalyzer.stem("bus")).isEqualTo("bus");
+        assertThat(ItemTextAnalyzer.stem("мама")).isEqualTo("мам");
+    }
+
+    @Test
+    void stemPrefersLongestRussianSuffix() {
+        assertThat(ItemTextAnalyzer.stem("аккумуляторная")).isEqualTo("аккумуляторн");
+        assertThat(ItemTextAnalyzer.stem("инструментами")).isEqualTo("инструмент");
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.view;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingSavedEvent;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.datasource.ReplicaLagWindow;
+import ru.practicum.shareit.item.dto.ItemWithCommentsOutputDto;
+import ru.practicum.shareit.item.event.CommentSavedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemViewCacheTest {
+    private static final long OWNER_ID = 1;
+    private static final long OTHER_USER_ID = 2;
+
+    private ItemViewCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemViewCache(new SimpleMeterRegistry(), ReplicaLagWindow.none(), 100, 60_000);
+    }
+
+    @Test
+    void ownerAndOtherUsersGetTheirOwnViews() {
+        ItemView ownerView = view(1, true);
+        ItemView publicView = view(1, false);
+        cache.put(1, ownerView, cache.generation(1));
+        cache.put(1, publicView, cache.generation(1));
+
+        assertThat(cache.get(1, OWNER_ID)).isSameAs(ownerView);
+        assertThat(cache.get(1, OTHER_USER_ID)).isSameAs(publicView);
+    }
+
+    @Test
+    void viewLoadedDuringInvalidationOfSameItemIsNotCached() {
+        long generation = cache.generation(1);
+        cache.onItemSaved(new ItemSavedEvent(1, "Дрель", "Дрель", true));
+
+        cache.put(1, view(1, false), generation);
+
+        assertThat(cache.get(1, OTHER_USER_ID)).isNull();
+    }
+
+    @Test
+    void invalidationOfOtherItemDoesNotDropPut() {
+        long generation = cache.generation(1);
+        cache.onItemSaved(new ItemSavedEvent(2, "Пила", "Пила", true));
+        cache.onCommentSaved(new CommentSavedEvent(10, 3));
+
+        cache.put(1, view(1, false), generation);
+
+        assertThat(cache.get(1, OTHER_USER_ID)).isNotNull();
+    }
+
+    @Test
+    void itemAndCommentChangesDropBothViews() {
+        putBothViews(1);
+        cache.onItemSaved(new ItemSavedEvent(1, "Дрель", "Дрель", true));
+        assertThat(cache.get(1, OWNER_ID)).isNull();
+        assertThat(cache.get(1, OTHER_USER_ID)).isNull();
+
+        putBothViews(1);
+        cache.onCommentSaved(new CommentSavedEvent(10, 1));
+        assertThat(cache.get(1, OWNER_ID)).isNull();
+        assertThat(cache.get(1, OTHER_USER_ID)).isNull();
+    }
+
+    @Test
+    void onlyApprovedBookingDropsOwnerView() {
+        putBothViews(1);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        cache.onBookingSaved(new BookingSavedEvent(10, 1, start, start.plusDays(1), Status.WAITING));
+        cache.onBookingSaved(new BookingSavedEvent(10, 1, start, start.plusDays(1), Status.REJECTED));
+        assertThat(cache.get(1, OWNER_ID)).isNotNull();
+
+        cache.onBookingSaved(new BookingSavedEvent(11, 1, start, start.plusDays(1), Status.APPROVED));
+        assertThat(cache.get(1, OWNER_ID)).isNull();
+        assertThat(cache.get(1, OTHER_USER_ID)).isNotNull();
+    }
+
+    @Test
+    void userChangeDropsEveryViewAndConcurrentPuts() {
+        putBothViews(1);
+        long generation = cache.generation(2);
+
+        cache.onUserSaved(new UserSavedEvent(OTHER_USER_ID));
+        cache.put(2, view(2, false), generation);
+
+        assertThat(cache.get(1, OWNER_ID)).isNull();
+        assertThat(cache.get(1, OTHER_USER_ID)).isNull();
+        assertThat(cache.get(2, OTHER_USER_ID)).isNull();
+    }
+
+    private void putBothViews(long itemId) {
+        cache.put(itemId, view(itemId, true), cache.generation(itemId));
+        cache.put(itemId, view(itemId, false), cache.generation(itemId));
+    }
+
+    private static ItemView view(long itemId, boolean ownerView) {
+        ItemWithCommentsOutputDto item = ItemWithCommentsOutputDto.builder()
+                .id(itemId)
+                .name("Дрель")
+                .build();
+        return new ItemView(OWNER_ID, ownerView, "item-" + itemId, item);
+    }
+}
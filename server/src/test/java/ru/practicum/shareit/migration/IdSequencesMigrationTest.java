@@ -0,0 +1,117 @@
+package ru.practicum.shareit.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.PostgresIntegrationTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdSequencesMigrationTest extends PostgresIntegrationTest {
+    private static final String LEGACY_SCHEMA = "legacy";
+    private static final int ALLOCATION_SIZE = 50;
+    private static final List<String> TABLES = List.of("users", "requests", "items", "bookings", "comments");
+
+    @Value("${spring.datasource.url}")
+    private String url;
+    @Value("${spring.datasource.username}")
+    private String username;
+    @Value("${spring.datasource.password}")
+    private String password;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void sequencesContinueAfterRowsInsertedBeforeMigration() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, username, password);
+        dataSource.setSchema(LEGACY_SCHEMA);
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        migrate(dataSource, "8");
+        // до V9 id выдавали identity-столбцы
+        for (int i = 1; i <= 3; i++) {
+            legacy.update("INSERT INTO users (name, email) VALUES (?, ?)", "user" + i, "user" + i + "@example.com");
+        }
+        legacy.update("INSERT INTO requests (description, created, requester_id) " +
+                "VALUES ('нужна дрель', LOCALTIMESTAMP, 3)");
+        legacy.update("INSERT INTO items (name, description, available, owner_id, request_id) " +
+                "VALUES ('Дрель', 'Дрель', true, 1, 1)");
+        legacy.update("INSERT INTO items (name, description, available, owner_id) VALUES ('Пила', 'Пила', true, 1)");
+        legacy.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (LOCALTIMESTAMP - INTERVAL '2 days', LOCALTIMESTAMP - INTERVAL '1 day', 1, 2, 'APPROVED')");
+        legacy.update("INSERT INTO comments (text, created, item_id, author_id) " +
+                "VALUES ('Хорошая дрель', LOCALTIMESTAMP, 1, 2)");
+
+        migrate(dataSource, "latest");
+
+        for (String table : TABLES) {
+            long maxId = legacy.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            long blockEnd = legacy.queryForObject("SELECT nextval('" + table + "_seq')", Long.class);
+            // Hibernate выдаёт id от blockEnd - 49 до blockEnd
+            assertThat(blockEnd - ALLOCATION_SIZE + 1).as(table).isGreaterThan(maxId);
+        }
+        assertThat(legacy.queryForObject("INSERT INTO users (name, email) VALUES ('new', 'new@example.com') " +
+                "RETURNING id", Long.class)).isGreaterThan(3);
+        assertThat(legacy.queryForList("SELECT item_id FROM item_booking_pointers ORDER BY item_id", Long.class))
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void sqlInsertsDoNotCollideWithHibernateBlocks() {
+        long ownerId = userService.addUser(UserDto.builder()
+                .name("owner")
+                .email("owner-" + UUID.randomUUID() + "@example.com")
+                .build()).getId();
+        List<Long> ids = new ArrayList<>();
+
+        ids.addAll(addItems(ownerId, 3));
+        ids.add(insertItem(ownerId));
+        // больше одного блока: Hibernate дважды обращается к последовательности
+        ids.addAll(addItems(ownerId, ALLOCATION_SIZE + 10));
+        ids.add(insertItem(ownerId));
+        ids.addAll(addItems(ownerId, 3));
+
+        assertThat(ids).hasSize(ALLOCATION_SIZE + 18).doesNotHaveDuplicates();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items WHERE owner_id = ?", Long.class, ownerId))
+                .isEqualTo(ids.size());
+    }
+
+    private List<Long> addItems(long ownerId, int count) {
+        List<ItemDto> items = IntStream.range(0, count)
+                .mapToObj(i -> ItemDto.builder().name("Дрель " + i).description("Дрель").available(true).build())
+                .collect(Collectors.toList());
+        return itemService.addItems(items, ownerId).stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+
+    private long insertItem(long ownerId) {
+        return jdbcTemplate.queryForObject("INSERT INTO items (name, description, available, owner_id) " +
+                "VALUES ('Пила', 'Пила', true, ?) RETURNING id", Long.class, ownerId);
+    }
+
+    private static void migrate(DataSource dataSource, String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(LEGACY_SCHEMA)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .target(target)
+                .load()
+                .migrate();
+    }
+}
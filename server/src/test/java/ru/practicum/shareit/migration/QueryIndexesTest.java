@@ -0,0 +1,67 @@
+package ru.practicum.shareit.migration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+class QueryIndexesTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@example.com')");
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (2, 'booker', 'booker@example.com')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) " +
+                "VALUES (1, 'Дрель', 'Дрель', true, 1)");
+        for (int i = 1; i <= 20; i++) {
+            jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                    "VALUES (?, DATEADD('DAY', ?, LOCALTIMESTAMP), DATEADD('DAY', ?, LOCALTIMESTAMP), 1, 2, ?)",
+                    i, i, i + 1, i % 2 == 0 ? "APPROVED" : "WAITING");
+            jdbcTemplate.update("INSERT INTO requests (id, description, created, requester_id) " +
+                    "VALUES (?, 'нужна дрель', DATEADD('DAY', ?, LOCALTIMESTAMP), 2)", i, -i);
+        }
+    }
+
+    @Test
+    void migrationsCreateQueryIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES", String.class);
+
+        assertThat(indexes).contains(
+                "idx_bookings_booker_start",
+                "idx_bookings_item_status_start",
+                "idx_items_owner",
+                "idx_items_request",
+                "idx_comments_item",
+                "idx_requests_requester_created",
+                "idx_requests_created",
+                "idx_item_booking_pointers_last",
+                "idx_item_booking_pointers_next");
+    }
+
+    @Test
+    void lastAndNextBookingLookupUsesItemStatusStartIndex() {
+        assertThat(explain("SELECT id FROM bookings " +
+                "WHERE item_id = 1 AND status = 'APPROVED' AND start_date < LOCALTIMESTAMP " +
+                "ORDER BY start_date DESC"))
+                .containsIgnoringCase("idx_bookings_item_status_start");
+    }
+
+    @Test
+    void requestFeedIsReadInIndexOrder() {
+        assertThat(explain("SELECT id FROM requests ORDER BY created DESC, id DESC LIMIT 10"))
+                .containsIgnoringCase("idx_requests_created");
+    }
+
+    private String explain(String query) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+    }
+}
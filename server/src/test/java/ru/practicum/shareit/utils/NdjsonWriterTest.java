@@ -0,0 +1,57 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.datasource.StreamingQueries;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void afterFetchRunsOncePerFetchedBatch() throws Exception {
+        int rows = 2 * StreamingQueries.FETCH_SIZE + 1;
+        AtomicInteger fetches = new AtomicInteger();
+        long written;
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response)) {
+            written = writer.writeAll(LongStream.range(0, rows).boxed(), id -> Map.of("id", id),
+                    fetches::incrementAndGet);
+        }
+
+        assertThat(written).isEqualTo(rows);
+        assertThat(fetches).hasValue(2);
+        List<String> lines = response.getContentAsString().lines().collect(Collectors.toList());
+        assertThat(lines).hasSize(rows);
+        assertThat(lines.get(0)).isEqualTo("{\"id\":0}");
+        assertThat(lines.get(rows - 1)).isEqualTo("{\"id\":" + (rows - 1) + "}");
+    }
+
+    @Test
+    void contentTypeIsSetOnlyWhenWritingStarts() throws Exception {
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response)) {
+            assertThat(response.getContentType()).isNull();
+            writer.write(Map.of("id", 1));
+            assertThat(response.getContentType()).isEqualTo(NdjsonWriter.MEDIA_TYPE);
+        }
+
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}\n");
+    }
+
+    @Test
+    void closingUnusedWriterLeavesResponseUntouched() throws Exception {
+        new NdjsonWriter(objectMapper, response).close();
+
+        assertThat(response.getContentType()).isNull();
+        assertThat(response.getContentAsString()).isEmpty();
+        assertThat(response.isCommitted()).isFalse();
+    }
+}
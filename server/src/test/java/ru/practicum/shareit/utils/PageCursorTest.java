@@ -0,0 +1,84 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+    private static final LocalDateTime POSITION = LocalDateTime.of(2023, 3, 14, 15, 9, 26, 535_000_000);
+
+    @Test
+    void decodeRestoresPositionAndId() {
+        PageCursor cursor = PageCursor.of(POSITION, 42);
+
+        PageCursor decoded = PageCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.getPosition()).isEqualTo(POSITION);
+        assertThat(decoded.getId()).isEqualTo(42);
+    }
+
+    @Test
+    void decodeRestoresIdOnlyCursor() {
+        PageCursor decoded = PageCursor.decode(PageCursor.of(7).encode());
+
+        assertThat(decoded.getPosition()).isNull();
+        assertThat(decoded.getId()).isEqualTo(7);
+    }
+
+    @Test
+    void encodeIsUrlSafeAndUnpadded() {
+        String encoded = PageCursor.of(POSITION, Long.MAX_VALUE).encode();
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void decodeReturnsNullForMissingCursor() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode("")).isNull();
+        assertThat(PageCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void decodeRejectsMalformedCursors() {
+        assertThatThrownBy(() -> PageCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("illegal cursor: not base64!");
+        assertThatThrownBy(() -> PageCursor.decode(encodeRaw("2023-03-14T15:09|abc")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("illegal cursor");
+        assertThatThrownBy(() -> PageCursor.decode(encodeRaw("2023-13-14T15:09|5")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("illegal cursor");
+    }
+
+    @Test
+    void toResponseSetsNextCursorFromLastRowOfFullPage() {
+        ResponseEntity<List<Long>> response = PageCursor.toResponse(List.of(3L, 2L), 2, PageCursor::of);
+
+        assertThat(response.getBody()).containsExactly(3L, 2L);
+        assertThat(PageCursor.decode(response.getHeaders().getFirst(PageCursor.NEXT_CURSOR_HEADER)))
+                .isEqualTo(PageCursor.of(2));
+    }
+
+    @Test
+    void toResponseOmitsNextCursorOnLastPage() {
+        ResponseEntity<List<Long>> partial = PageCursor.toResponse(List.of(1L), 2, PageCursor::of);
+        ResponseEntity<List<Long>> empty = PageCursor.toResponse(List.of(), 2, PageCursor::of);
+
+        assertThat(partial.getHeaders().containsKey(PageCursor.NEXT_CURSOR_HEADER)).isFalse();
+        assertThat(empty.getHeaders().containsKey(PageCursor.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    private static String encodeRaw(String value) {
+        return Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}